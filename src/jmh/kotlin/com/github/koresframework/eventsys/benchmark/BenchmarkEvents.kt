@@ -0,0 +1,79 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.benchmark
+
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.event.annotation.LazyGeneration
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.result.success
+
+interface BenchmarkEvent : Event {
+    val value: String
+    val amount: Int
+}
+
+interface BenchmarkEventFactory {
+    fun createBenchmarkEvent(@Name("value") value: String, @Name("amount") amount: Int): BenchmarkEvent
+
+    @LazyGeneration
+    fun createLazyBenchmarkEvent(@Name("value") value: String, @Name("amount") amount: Int): BenchmarkEvent
+}
+
+/**
+ * Listener which only reads event properties, so benchmarks measure the dispatch overhead.
+ */
+class BenchmarkEventListener : EventListener<BenchmarkEvent> {
+    @JvmField
+    var amount = 0
+
+    override fun onEvent(event: BenchmarkEvent, dispatcher: Any): ListenResult {
+        this.amount += event.amount
+        return SUCCESS
+    }
+
+    companion object {
+        private val SUCCESS = success()
+    }
+}
+
+/**
+ * Method listener, registered through reflection and dispatched either by a generated class or by
+ * [MethodDispatcher][com.github.koresframework.eventsys.util.mh.MethodDispatcher].
+ */
+class BenchmarkMethodListener {
+    @JvmField
+    var amount = 0
+
+    @Listener
+    fun onBenchmarkEvent(event: BenchmarkEvent, @Name("value") value: String, @Name("amount") amount: Int) {
+        this.amount += amount
+    }
+}
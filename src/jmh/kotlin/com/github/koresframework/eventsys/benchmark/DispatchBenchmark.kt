@@ -0,0 +1,137 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.benchmark
+
+import com.github.koresframework.eventsys.channel.ChannelSet
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.event.EventListenerRegistry
+import com.github.koresframework.eventsys.event.EventManager
+import com.github.koresframework.eventsys.gen.event.CommonEventGenerator
+import com.github.koresframework.eventsys.gen.event.EventGenerator
+import com.github.koresframework.eventsys.impl.*
+import com.github.koresframework.eventsys.logging.LoggerInterface
+import com.github.koresframework.eventsys.result.DispatchResult
+import com.github.koresframework.eventsys.result.ListenExecutionResult
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.createFactory
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures [EventManager.dispatch] and [EventManager.dispatchAsync] through each registry implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class DispatchBenchmark {
+
+    @Param("PER_CHANNEL", "SHARED_SET", "CHANNEL", "COPY_ON_WRITE")
+    @JvmField
+    var registryType = RegistryType.PER_CHANNEL
+
+    @Param("1", "10", "100")
+    @JvmField
+    var listeners = 0
+
+    @Param("false", "true")
+    @JvmField
+    var cacheDispatchPlan = false
+
+    private lateinit var executor: ExecutorService
+    private lateinit var manager: EventManager
+    private lateinit var event: BenchmarkEvent
+
+    @Setup
+    fun setup() {
+        this.executor = Executors.newCachedThreadPool()
+
+        val executorStrategy = ExecutorStrategy.of(this.executor)
+        val logger = CommonLogger()
+        val generator = CommonEventGenerator(logger, executorStrategy = executorStrategy)
+        val registry = this.registryType.create(logger, generator)
+        val dispatcher = CommonEventDispatcher(
+                Executors.defaultThreadFactory(),
+                generator,
+                logger,
+                registry,
+                this.cacheDispatchPlan,
+                executorStrategy = executorStrategy
+        )
+
+        repeat(this.listeners) {
+            registry.registerListener(this, BenchmarkEvent::class.java, BenchmarkEventListener())
+        }
+
+        this.manager = CommonEventManager(generator, dispatcher, registry)
+        this.event = generator.createFactory<BenchmarkEventFactory>().resolve()
+                .createBenchmarkEvent("benchmark", 1)
+    }
+
+    @TearDown
+    fun tearDown() {
+        this.executor.shutdown()
+    }
+
+    @Benchmark
+    fun dispatch(): DispatchResult<BenchmarkEvent> =
+            this.manager.dispatch(this.event, this)
+
+    @Benchmark
+    fun dispatchAsync(): List<ListenExecutionResult<BenchmarkEvent>> =
+            this.manager.dispatchAsync(this.event, this).await()
+
+    enum class RegistryType {
+        PER_CHANNEL {
+            override fun create(logger: LoggerInterface, generator: EventGenerator): EventListenerRegistry =
+                    PerChannelEventListenerRegistry(SORTER, logger, generator)
+        },
+        SHARED_SET {
+            override fun create(logger: LoggerInterface, generator: EventGenerator): EventListenerRegistry =
+                    SharedSetChannelEventListenerRegistry(SORTER, logger, generator)
+        },
+        CHANNEL {
+            override fun create(logger: LoggerInterface, generator: EventGenerator): EventListenerRegistry =
+                    CommonChannelEventListenerRegistry(ChannelSet.ALL, SORTER, logger, generator)
+        },
+        COPY_ON_WRITE {
+            override fun create(logger: LoggerInterface, generator: EventGenerator): EventListenerRegistry =
+                    CopyOnWriteEventListenerRegistry(SORTER, logger, generator)
+        };
+
+        abstract fun create(logger: LoggerInterface, generator: EventGenerator): EventListenerRegistry
+    }
+
+    companion object {
+        private val SORTER = Comparator.comparing(EventListener<*>::priority)
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.benchmark
+
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.gen.event.CommonEventGenerator
+import com.github.koresframework.eventsys.gen.event.EventGeneratorOptions
+import com.github.koresframework.eventsys.impl.CommonLogger
+import com.github.koresframework.eventsys.impl.PerChannelEventListenerRegistry
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.createFactory
+import com.github.koresframework.eventsys.util.mh.LambdaListener
+import com.github.koresframework.eventsys.util.mh.MethodDispatcher
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures invocation of method listeners, either generated,
+ * [method handle based][EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER] or
+ * [lambda based][EventGeneratorOptions.USE_LAMBDA_LISTENER].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class ListenerBenchmark {
+
+    @Param("GENERATED", "METHOD_HANDLE", "LAMBDA")
+    @JvmField
+    var mode = ListenerMode.GENERATED
+
+    private lateinit var listener: EventListener<BenchmarkEvent>
+    private lateinit var event: BenchmarkEvent
+
+    @Setup
+    fun setup() {
+        val logger = CommonLogger()
+        val generator = CommonEventGenerator(logger, executorStrategy = ExecutorStrategy.CALLER_RUNS)
+        generator.options[EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER] = this.mode == ListenerMode.METHOD_HANDLE
+        generator.options[EventGeneratorOptions.USE_LAMBDA_LISTENER] = this.mode == ListenerMode.LAMBDA
+
+        val registry = PerChannelEventListenerRegistry(Comparator.comparing(EventListener<*>::priority), logger, generator)
+        registry.registerListeners(this, BenchmarkMethodListener())
+
+        @Suppress("UNCHECKED_CAST")
+        this.listener = registry.getListenersContainers().single().eventListener as EventListener<BenchmarkEvent>
+
+        // Measuring another listener kind would silently report wrong numbers
+        check(this.mode.accepts(this.listener)) { "Listener of mode '${this.mode}' is '${this.listener::class.java}'." }
+
+        this.event = generator.createFactory<BenchmarkEventFactory>().resolve()
+                .createBenchmarkEvent("benchmark", 1)
+    }
+
+    @Benchmark
+    fun onEvent(): ListenResult =
+            this.listener.onEvent(this.event, this)
+
+    enum class ListenerMode {
+        GENERATED {
+            override fun accepts(listener: EventListener<*>): Boolean =
+                    listener !is MethodDispatcher && listener !is LambdaListener
+        },
+        METHOD_HANDLE {
+            override fun accepts(listener: EventListener<*>): Boolean = listener is MethodDispatcher
+        },
+        LAMBDA {
+            override fun accepts(listener: EventListener<*>): Boolean = listener is LambdaListener
+        };
+
+        abstract fun accepts(listener: EventListener<*>): Boolean
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.benchmark
+
+import com.github.koresframework.eventsys.event.property.Property
+import com.github.koresframework.eventsys.event.property.primitive.IntProperty
+import com.github.koresframework.eventsys.gen.event.CommonEventGenerator
+import com.github.koresframework.eventsys.impl.CommonLogger
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.createFactory
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures [PropertyHolder][com.github.koresframework.eventsys.event.property.PropertyHolder] access
+ * on generated events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PropertyBenchmark {
+
+    private lateinit var factory: BenchmarkEventFactory
+    private lateinit var event: BenchmarkEvent
+
+    @Setup
+    fun setup() {
+        this.factory = CommonEventGenerator(CommonLogger(), executorStrategy = ExecutorStrategy.CALLER_RUNS).createFactory<BenchmarkEventFactory>().resolve()
+        this.event = this.factory.createBenchmarkEvent("benchmark", 1)
+    }
+
+    @Benchmark
+    fun getProperty(): Property<String>? =
+            this.event.getProperty(String::class.java, "value")
+
+    @Benchmark
+    fun getIntProperty(): IntProperty? =
+            this.event.getIntProperty("amount")
+
+    @Benchmark
+    fun lookup(): Property<String>? =
+            this.event.lookup(String::class.java, "value")
+
+    /**
+     * Measures the first access to properties, which includes the creation of the property map.
+     */
+    @Benchmark
+    fun getPropertyOfNewEvent(): Property<String>? =
+            this.factory.createBenchmarkEvent("benchmark", 1).getProperty(String::class.java, "value")
+}
@@ -29,25 +29,22 @@ package com.github.koresframework.eventsys.add;
 
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.data.TypedData;
-import com.github.jonathanxd.iutils.kt.EitherUtilKt;
 import com.github.jonathanxd.iutils.object.TypedKey;
 import com.github.jonathanxd.iutils.type.TypeInfo;
 import com.github.jonathanxd.iutils.type.TypeParameterProvider;
 import com.github.jonathanxd.kores.Instructions;
-import com.github.jonathanxd.kores.MutableInstructions;
 import com.github.jonathanxd.kores.base.ConstructorDeclaration;
 import com.github.jonathanxd.kores.base.FieldDeclaration;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
-import com.github.jonathanxd.kores.base.TypeDeclaration;
 import com.github.jonathanxd.kores.base.TypeSpec;
 import com.github.jonathanxd.kores.common.MethodTypeSpec;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.factory.InvocationFactory;
 import com.github.jonathanxd.kores.literal.Literals;
-import com.github.jonathanxd.kores.type.KoresTypes;
 import com.github.jonathanxd.kores.type.TypeRef;
 import com.github.koresframework.eventsys.event.Event;
 import com.github.koresframework.eventsys.event.property.PropertyHolder;
+import com.github.koresframework.eventsys.gen.GenerationEnvironment;
 import com.github.koresframework.eventsys.gen.event.EventClassGeneratorKt;
 import com.github.koresframework.eventsys.gen.event.PropertyInfo;
 import com.github.koresframework.eventsys.util.DeclarationCache;
@@ -65,16 +62,39 @@ public class EventSysAdditionalHandler {
             new TypeParameterProvider<List<PropertyInfo>>() {
             }.createTypeInfo());
 
-    private static void registerPropertiesIfAbsent(TypedData typedData, Class<?> base) {
-        DeclarationCache cache = new DeclarationCache();
-        TypeDeclaration declaration = EitherUtilKt.getRightOrFail(KoresTypes.getKoresType(base)
-                .getBindedDefaultResolver()
-                .resolveTypeDeclaration());
+    /**
+     * Generation environment which declarations are resolved from. When absent from the data, declarations are
+     * cached only for the data, as a static cache would keep resolved classes reachable forever.
+     */
+    public static final TypedKey<GenerationEnvironment> GENERATION_ENVIRONMENT_KEY =
+            new TypedKey<>("GENERATION_ENVIRONMENT", TypeInfo.of(GenerationEnvironment.class));
+
+    private static final TypedKey<DeclarationCache> DECLARATION_CACHE_KEY =
+            new TypedKey<>("DECLARATION_CACHE", TypeInfo.of(DeclarationCache.class));
+
+    private static DeclarationCache getDeclarationCache(TypedData typedData) {
+        GenerationEnvironment environment = GENERATION_ENVIRONMENT_KEY.getOrNull(typedData);
+
+        if (environment != null)
+            return environment.getDeclarationCache();
+
+        DeclarationCache cache = DECLARATION_CACHE_KEY.getOrNull(typedData);
+
+        if (cache == null) {
+            cache = new DeclarationCache();
+            DECLARATION_CACHE_KEY.set(typedData, cache);
+        }
+
+        return cache;
+    }
 
+    private static void registerPropertiesIfAbsent(TypedData typedData, Class<?> base) {
         if (!PROP_INFO_KEY.contains(typedData)) {
+            DeclarationCache cache = getDeclarationCache(typedData);
+
             PROP_INFO_KEY.set(typedData,
                     EventClassGeneratorKt.getProperties(
-                            declaration,
+                            cache.get(base),
                             Collections.emptyList(),
                             Collections.emptyList(),
                             cache
@@ -99,16 +119,7 @@ public class EventSysAdditionalHandler {
                                                                  @NotNull TypedData data) {
         registerPropertiesIfAbsent(data, base);
 
-        List<PropertyInfo> props = PROP_INFO_KEY.getOrNull(data);
-
-        if (props != null) {
-            MutableInstructions source = MutableInstructions.create();
-
-            EventClassGeneratorKt.genConstructorPropertiesMap(source, props);
-
-            return source.toImmutable();
-        }
-
+        // Property map is lazily created by getProperties
         return Instructions.empty();
     }
 
@@ -151,13 +162,12 @@ public class EventSysAdditionalHandler {
                                 )))
                                 .build());
             } else if (declaration.getName().equals("getProperties")) {
+                List<PropertyInfo> props = PROP_INFO_KEY.getOrNull(data);
+
                 return Optional.of(declaration)
                         .map(it -> it.builder()
-                                .body(Instructions.fromPart(Factories.returnValue(Map.class,
-                                        Factories.accessThisField(
-                                                EventClassGeneratorKt.getPropertiesFieldType(),
-                                                EventClassGeneratorKt.propertiesUnmodName)
-                                )))
+                                .body(EventClassGeneratorKt.genLazyPropertiesMap(
+                                        props != null ? props : Collections.emptyList()))
                                 .build());
             }
         }
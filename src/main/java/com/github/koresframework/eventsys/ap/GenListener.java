@@ -27,8 +27,6 @@
  */
 package com.github.koresframework.eventsys.ap;
 
-import com.github.jonathanxd.iutils.annotation.Wip;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -37,10 +35,11 @@ import java.lang.annotation.Target;
 /**
  * Specifies listener types that should have their code generated at compile-time.
  *
- * WIP: Does not work yet.
+ * Listener classes are generated for all {@link com.github.koresframework.eventsys.event.annotation.Listener}
+ * methods of annotated type, and registered in the generated index, so they are not generated again
+ * at runtime.
  */
 @Retention(RetentionPolicy.SOURCE)
 @Target(ElementType.TYPE)
-@Wip
 public @interface GenListener {
 }
@@ -45,14 +45,15 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FactoryBootstrap {
 
@@ -68,7 +69,10 @@ public class FactoryBootstrap {
     );
 
     private static final MethodHandle FALLBACK;
-    private static final Map<Class<?>, List<CachedParam>> propertyOrderCache = new HashMap<>();
+    private static final MethodHandle IS_SAME;
+    private static final int CANCELLED_ARG = -1;
+    private static final Map<Class<?>, List<CachedParam>> propertyOrderCache = new ConcurrentHashMap<>();
+    private static volatile SwitchPoint switchPoint = new SwitchPoint();
 
     static {
         try {
@@ -76,50 +80,91 @@ public class FactoryBootstrap {
                     FactoryBootstrap.class,
                     "fallback",
                     MethodType.methodType(Object.class, MyCallSite.class, Object[].class));
+            IS_SAME = LOOKUP.findStatic(
+                    FactoryBootstrap.class,
+                    "isSame",
+                    MethodType.methodType(Boolean.TYPE, Object.class, Object.class));
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Bootstraps a factory call site. The first bootstrap argument is the handle of the static method which
+     * provides the constant metadata of the call site (event type, additional properties and extensions),
+     * the remaining ones are the names of the factory parameters.
+     */
     public static CallSite factoryBootstrap(MethodHandles.Lookup caller,
                                             String name,
                                             MethodType type,
                                             Object... parameters) {
-        MyCallSite myCallSite = new MyCallSite(caller, name, type);
+        if (parameters.length == 0 || !(parameters[0] instanceof MethodHandle))
+            throw new IllegalArgumentException("Illegal bootstrap arguments: " + Arrays.toString(parameters));
+
+        MethodHandle metadata = (MethodHandle) parameters[0];
+        String[] names = new String[parameters.length - 1];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = (String) parameters[i + 1];
+        }
 
-        MethodHandle methodHandle = FALLBACK.bindTo(myCallSite).asCollector(Object[].class, type.parameterCount()).asType(type);
+        MyCallSite myCallSite = new MyCallSite(caller, name, type, metadata, names);
 
-        myCallSite.setTarget(methodHandle);
+        myCallSite.setTarget(fallbackHandle(myCallSite));
 
         return myCallSite;
     }
 
+    /**
+     * Invalidates all linked call sites, the next invocation of each call site will resolve the event class again.
+     *
+     * This must be called when the event class resolved for a type may change, for example, when
+     * an extension is registered.
+     */
+    public static void invalidateCallSites() {
+        synchronized (FactoryBootstrap.class) {
+            SwitchPoint old = switchPoint;
+            switchPoint = new SwitchPoint();
+            SwitchPoint.invalidateAll(new SwitchPoint[]{old});
+        }
+    }
+
+    private static MethodHandle fallbackHandle(MyCallSite callSite) {
+        MethodType type = callSite.type();
+        return FALLBACK.bindTo(callSite).asCollector(Object[].class, type.parameterCount()).asType(type);
+    }
+
+    private static boolean isSame(Object expected, Object actual) {
+        return expected == actual;
+    }
+
+    /**
+     * Resolves the event class and links the {@code callSite} to its constructor, so subsequent invocations
+     * only call the constructor. The linked target is guarded by the {@link EventGenerator} instance
+     * and by {@link #invalidateCallSites()}.
+     */
     @SuppressWarnings("unchecked")
     public static Object fallback(MyCallSite callSite, Object[] args) throws Throwable {
-        if (args.length != 6)
+        if (args.length != 2)
             throw new IllegalArgumentException("Illegal dynamic invocation.");
 
         Object generatorObj = args[0];
-        Object typeObj = args[1];
-        Object additionalPropertiesObj = args[2];
-        Object extensionsObj = args[3];
-        Object namesObj = args[4];
-        Object argsObj = args[5];
+        Object argsObj = args[1];
 
         if (generatorObj instanceof EventGenerator
-                && typeObj instanceof Type
-                && additionalPropertiesObj instanceof List<?>
-                && extensionsObj instanceof List<?>
-                && namesObj instanceof String[]
                 && argsObj instanceof Object[]) {
 
+            Object[] metadata = callSite.metadata();
             EventGenerator eventGenerator = (EventGenerator) generatorObj;
-            Type eventType = (Type) typeObj;
-            List<PropertyInfo> additionalProperties = (List<PropertyInfo>) additionalPropertiesObj;
-            List<ExtensionSpecification> extensions = (List<ExtensionSpecification>) extensionsObj;
-            String[] names = (String[]) namesObj;
+            Type eventType = (Type) metadata[0];
+            List<PropertyInfo> additionalProperties = (List<PropertyInfo>) metadata[1];
+            List<ExtensionSpecification> extensions = (List<ExtensionSpecification>) metadata[2];
+            String[] names = callSite.names;
             Object[] methodArgs = (Object[]) argsObj;
 
+            // Read before resolution, if invalidated while linking, the linked target is never used.
+            SwitchPoint currentSwitchPoint = switchPoint;
+
             Class<? extends Event> aClass = eventGenerator.createEventClass(
                     ImplicitKoresType.getConcreteType(eventType),
                     additionalProperties,
@@ -127,33 +172,10 @@ public class FactoryBootstrap {
                     new EnvironmentContext()
             ).invoke();
 
-            if (!propertyOrderCache.containsKey(aClass)) {
-                List<CachedParam> propertyOrder = new ArrayList<>();
-
-                Constructor<?> constructor = aClass.getDeclaredConstructors()[0];
-
-                Parameter[] parameters = constructor.getParameters();
-
-                for (Parameter parameter : parameters) {
-                    final String name;
-
-                    if (parameter.isAnnotationPresent(Name.class))
-                        name = parameter.getDeclaredAnnotation(Name.class).value();
-                    else
-                        name = parameter.getName();
-
-                    propertyOrder.add(new CachedParam(parameter.isAnnotationPresent(TypeParam.class), parameter.getType(), name));
-
-                }
-
-                propertyOrderCache.put(aClass, propertyOrder);
-
-            }
-
-            List<CachedParam> cachedParams = propertyOrderCache.get(aClass);
+            List<CachedParam> cachedParams = propertyOrderCache.computeIfAbsent(aClass, FactoryBootstrap::propertyOrder);
 
             boolean isCancellable = KoresTypes.getKoresType(Cancellable.class).isAssignableFrom(eventType);
-            Object[] sortedArgs = new Object[cachedParams.size()];
+            int[] argIndexes = new int[cachedParams.size()];
             Class<?>[] types = new Class[cachedParams.size()];
 
             for (int i = 0; i < cachedParams.size(); ++i) {
@@ -165,18 +187,18 @@ public class FactoryBootstrap {
 
                 if (isCancellable && name.equals("cancelled")) {
                     found = true;
-                    sortedArgs[i] = true;
+                    argIndexes[i] = CANCELLED_ARG;
                 }
 
                 if (cachedParam.isTypeProvider && i == 0) {
                     found = true;
-                    sortedArgs[i] = methodArgs[i];
+                    argIndexes[i] = i;
                 }
 
                 for (int n = 0; n < names.length; n++) {
                     if (names[n].equals(name)) {
                         found = true;
-                        sortedArgs[i] = methodArgs[n];
+                        argIndexes[i] = n;
                     }
                 }
 
@@ -187,31 +209,115 @@ public class FactoryBootstrap {
             MethodHandle constructor =
                     callSite.callerLookup.findConstructor(aClass, MethodType.methodType(Void.TYPE, types));
 
-            return constructor.invokeWithArguments(sortedArgs);
+            MethodHandle target = link(callSite, eventGenerator, constructor, argIndexes, methodArgs.length);
 
+            callSite.setTarget(currentSwitchPoint.guardWithTest(target, fallbackHandle(callSite)));
 
+            return target.invokeWithArguments(args);
         }
 
         throw new IllegalStateException("Cannot determine invocation format, arguments: "+ Arrays.toString(args));
     }
 
+    private static List<CachedParam> propertyOrder(Class<?> aClass) {
+        List<CachedParam> propertyOrder = new ArrayList<>();
+
+        Constructor<?> constructor = aClass.getDeclaredConstructors()[0];
+
+        Parameter[] parameters = constructor.getParameters();
+
+        for (Parameter parameter : parameters) {
+            final String name;
+
+            if (parameter.isAnnotationPresent(Name.class))
+                name = parameter.getDeclaredAnnotation(Name.class).value();
+            else
+                name = parameter.getName();
+
+            propertyOrder.add(new CachedParam(parameter.isAnnotationPresent(TypeParam.class), parameter.getType(), name));
+
+        }
+
+        return propertyOrder;
+    }
+
+    /**
+     * Adapts {@code constructor} to the call site type: the factory arguments array is spread and permuted
+     * to the constructor parameter order described by {@code argIndexes}.
+     */
+    private static MethodHandle link(MyCallSite callSite,
+                                     EventGenerator eventGenerator,
+                                     MethodHandle constructor,
+                                     int[] argIndexes,
+                                     int argCount) {
+        MethodType type = callSite.type();
+        MethodHandle handle = constructor.asType(MethodType.genericMethodType(argIndexes.length));
+
+        for (int i = argIndexes.length - 1; i >= 0; i--) {
+            if (argIndexes[i] == CANCELLED_ARG)
+                handle = MethodHandles.insertArguments(handle, i, Boolean.TRUE);
+        }
+
+        int[] reorder = Arrays.stream(argIndexes).filter(it -> it != CANCELLED_ARG).toArray();
+
+        handle = MethodHandles.permuteArguments(handle, MethodType.genericMethodType(argCount), reorder)
+                .asSpreader(Object[].class, argCount);
+
+        handle = MethodHandles.dropArguments(handle, 0, type.parameterList().subList(0, type.parameterCount() - 1))
+                .asType(type);
+
+        MethodHandle test = IS_SAME.bindTo(eventGenerator)
+                .asType(MethodType.methodType(Boolean.TYPE, type.parameterType(0)));
+
+        return MethodHandles.guardWithTest(test, handle, fallbackHandle(callSite));
+    }
+
     public static class MyCallSite extends MutableCallSite {
 
         final MethodHandles.Lookup callerLookup;
         final String name;
-
-        MyCallSite(MethodHandles.Lookup callerLookup, String name, MethodType type) {
+        final MethodHandle metadataHandle;
+        final String[] names;
+        private volatile Object[] metadata;
+
+        MyCallSite(MethodHandles.Lookup callerLookup,
+                   String name,
+                   MethodType type,
+                   MethodHandle metadataHandle,
+                   String[] names) {
             super(type);
             this.callerLookup = callerLookup;
             this.name = name;
+            this.metadataHandle = metadataHandle;
+            this.names = names;
         }
 
-        MyCallSite(MethodHandles.Lookup callerLookup, MethodHandle target, String name) {
+        MyCallSite(MethodHandles.Lookup callerLookup,
+                   MethodHandle target,
+                   String name,
+                   MethodHandle metadataHandle,
+                   String[] names) {
             super(target);
             this.callerLookup = callerLookup;
             this.name = name;
+            this.metadataHandle = metadataHandle;
+            this.names = names;
         }
 
+        /**
+         * Returns the constant metadata of this call site, computed once. Concurrent first calls may compute it
+         * more than once, but always to an equal value.
+         */
+        Object[] metadata() throws Throwable {
+            Object[] metadata = this.metadata;
+
+            if (metadata == null) {
+                metadata = (Object[]) this.metadataHandle.invoke();
+                this.metadata = metadata;
+            }
+
+            return metadata;
+        }
 
     }
 
@@ -43,12 +43,16 @@ import com.github.jonathanxd.kores.util.inferType
 import com.github.koresframework.eventsys.context.EnvironmentContext
 import com.github.koresframework.eventsys.event.Cancellable
 import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.ListenerSpec
+import com.github.koresframework.eventsys.event.annotation.Listener
 import com.github.koresframework.eventsys.event.annotation.Extension
 import com.github.koresframework.eventsys.event.property.PropertyHolder
 import com.github.koresframework.eventsys.extension.ExtensionSpecification
+import com.github.koresframework.eventsys.gen.GeneratedIndex
 import com.github.koresframework.eventsys.gen.GenerationEnvironment
 import com.github.koresframework.eventsys.gen.event.*
 import com.github.koresframework.eventsys.logging.MessageType
+import com.github.koresframework.eventsys.util.isAnnotationPresent
 import java.io.IOException
 import java.util.*
 import javax.annotation.processing.AbstractProcessor
@@ -67,6 +71,11 @@ val ROUND_ENV_KEY = typedKeyOf<RoundEnvironment>("ROUND_ENVIRONMENT")
 
 /**
  * Annotation processor of compile-time factory interface generation.
+ *
+ * Factory and event implementations (when [FactorySettings.compileTimeGenerator] is enabled) and listener classes
+ * of [GenListener] types are also generated, and registered in [generated index][GeneratedIndex], which
+ * [CommonEventGenerator] looks up before generating classes at runtime. Event implementations are only found
+ * at runtime when the generator has the same extensions registered as the compile-time generator.
  */
 class AnnotationProcessor : AbstractProcessor() {
     private val sourceGen = PlainSourceGenerator()
@@ -77,7 +86,7 @@ class AnnotationProcessor : AbstractProcessor() {
         APTEnvironment(this.processingEnv.elementUtils)
     }
 
-    private val defaultGenerator: EventGenerator by lazy {
+    private val defaultGenerator: CommonEventGenerator by lazy {
         createGenerator()
     }
 
@@ -85,6 +94,11 @@ class AnnotationProcessor : AbstractProcessor() {
         APTResolverFunc(this.processingEnv.elementUtils, this.env.declarationCache)
     }
 
+    /**
+     * Entries of [generated index][GeneratedIndex] of classes generated in this compilation.
+     */
+    private val index = mutableMapOf<String, String>()
+
     override fun process(
         annotations: MutableSet<out TypeElement>,
         roundEnv: RoundEnvironment
@@ -95,6 +109,17 @@ class AnnotationProcessor : AbstractProcessor() {
         }
 
         try {
+            if (roundEnv.processingOver()) {
+                this.writeIndex()
+                return true
+            }
+
+            roundEnv.getElementsAnnotatedWith(GenListener::class.java).forEach {
+                if (it is TypeElement) {
+                    this.generateListeners(it)
+                }
+            }
+
             val elements =
                 roundEnv.getElementsAnnotatedWith(Factory::class.java) + roundEnv.getElementsAnnotatedWith(
                     Factories::class.java
@@ -282,7 +307,7 @@ class AnnotationProcessor : AbstractProcessor() {
             it.options[EventGeneratorOptions.LAZY_EVENT_GENERATION_MODE] = LazyGenerationMode.REFLECTION
         }
 
-    private fun generateFactory(declaration: TypeDeclaration, eventGenerator: EventGenerator,
+    private fun generateFactory(declaration: TypeDeclaration, eventGenerator: CommonEventGenerator,
                                 ctx: EnvironmentContext) {
         val (factory, events) = EventFactoryClassGenerator.createDeclaration(
             eventGenerator,
@@ -292,11 +317,63 @@ class AnnotationProcessor : AbstractProcessor() {
                 ctx
         )
 
-        events.forEach {
-            this.save(it.classDeclaration)
+        events.forEach { (specification, event) ->
+            val eventSpecification = eventGenerator.eventClassSpecification(
+                specification.type,
+                specification.additionalProperties,
+                specification.extensions
+            )
+
+            this.save(event.classDeclaration)
+            this.index[GeneratedIndex.eventKey(eventSpecification)] = event.classDeclaration.binaryName
         }
 
         this.save(factory)
+        this.index[GeneratedIndex.factoryKey(declaration)] = factory.binaryName
+    }
+
+    private fun generateListeners(element: TypeElement) {
+        val listenerType = element.getKoresType(processingEnv.elementUtils).concreteType
+        // Listener classes are not loaded at compile time, so the package could only be resolved from the element
+        val packageName = processingEnv.elementUtils.getPackageOf(element).qualifiedName.toString()
+
+        this.env.declarationCache[listenerType].methods.filter {
+            it.isAnnotationPresent(Listener::class.java)
+        }.forEach {
+            val spec = ListenerSpec.fromMethodDeclaration(it)
+            val declaration = MethodListenerGenerator.createClassDeclaration(listenerType, it, spec, packageName)
+
+            this.save(declaration, element)
+            this.index[GeneratedIndex.listenerKey(listenerType, it)] = declaration.binaryName
+        }
+    }
+
+    private fun writeIndex() {
+        if (this.index.isEmpty())
+            return
+
+        val filer = processingEnv.filer
+        // Incremental compilations only process changed sources, so entries of previous compilations are kept.
+        val entries = mutableMapOf<String, String>()
+
+        try {
+            filer.getResource(StandardLocation.CLASS_OUTPUT, "", GeneratedIndex.LOCATION)
+                .openReader(true)
+                .buffered()
+                .useLines { GeneratedIndex.parse(it, entries) }
+        } catch (e: IOException) {
+            // No index of previous compilation.
+        }
+
+        entries.putAll(this.index)
+
+        val resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", GeneratedIndex.LOCATION)
+
+        resource.openWriter().use { writer ->
+            entries.forEach { (key, name) ->
+                writer.write("$key $name\n")
+            }
+        }
     }
 
     private fun save(declaration: TypeDeclaration, vararg origin: Element) {
@@ -658,7 +735,8 @@ class AnnotationProcessor : AbstractProcessor() {
     override fun getSupportedAnnotationTypes(): MutableSet<String> {
         return mutableSetOf(
             "com.github.koresframework.eventsys.ap.Factory",
-            "com.github.koresframework.eventsys.ap.Factories"
+            "com.github.koresframework.eventsys.ap.Factories",
+            "com.github.koresframework.eventsys.ap.GenListener"
         )
     }
 
@@ -27,6 +27,7 @@
  */
 package com.github.koresframework.eventsys.error
 
+import com.github.koresframework.eventsys.util.OverloadPolicy
 import java.lang.reflect.Type
 
 /**
@@ -57,4 +58,11 @@ object CouldNotDispatchError : ListenError
 /**
  * Event was cancelled, thus, listener wasn't called.
  */
-class EventCancelledError : ListenError
\ No newline at end of file
+class EventCancelledError : ListenError
+
+/**
+ * Listener wasn't called because the asynchronous dispatch was rejected by the executor, [policy] is the
+ * [OverloadPolicy] which rejected it, or `null` if it was not rejected because of an overload, for example,
+ * because the executor is shutdown.
+ */
+class DispatchRejectedError(val policy: OverloadPolicy?) : ListenError
@@ -35,15 +35,23 @@ import com.github.koresframework.eventsys.gen.event.EventClassGenerator
  * If an [Event] is cancelled, all changes must be reverted or cancelled.
  *
  * By default, `EventSys` does not cancel events when [isCancelled] is set to `true`,
- * it only does when [EventListener.cancelAffected] is set to `true`.
+ * it only does when [EventListener.cancelAffected] or [EventListener.ignoreCancelled] is set to `true`.
  *
- * When event is cancelled, the first [Cancel affected listener][EventListener.cancelAffected] will switch
- * the cancel state to `true`, meaning that subsequent [Cancel affected listeners][EventListener.cancelAffected]
- * will be ignored, even if `isCancelled` is set to `true` again. If cancellation state could be changed
- * between listeners, use [EventListener.priority] to set priorities.
+ * The cancel state is checked again after each listener, so a listener which sets [isCancelled] to `true`
+ * prevents all subsequent [Cancel affected listeners][EventListener.cancelAffected] from being called, until
+ * a listener which is not cancel affected sets [isCancelled] back to `false`. Use [EventListener.priority]
+ * to order listeners which change the cancellation state.
  *
- * [Cancellable] events does not work with async dispatch, they could be dispatched, but will never be ignored,
- * even if the listener is [EventListener.cancelAffected].
+ * Asynchronous dispatches have the same semantics of synchronous dispatch when listeners are called sequentially
+ * in a single task, which is the case of:
+ *
+ * - [Ordered async dispatch][EventDispatcher.dispatchOrderedAsync].
+ * - Async dispatch of a [CommonEventDispatcher][com.github.koresframework.eventsys.impl.CommonEventDispatcher]
+ * with an ordered executor (keyed ordered dispatch).
+ * - All async dispatches of a [RingBufferEventDispatcher][com.github.koresframework.eventsys.impl.RingBufferEventDispatcher].
+ *
+ * Otherwise, async dispatch calls each listener in a different task, so [Cancellable] events could be dispatched,
+ * but will never be ignored, even if the listener is [EventListener.cancelAffected].
  *
  * [EventClassGenerator] always generates the [isCancelled] property for [Cancellable] events with `false` as
  * default value.
@@ -63,7 +63,7 @@ interface EventListener<in T : Event> {
         get() = ChannelSet.Expression.ALL
 
     /**
-     * Ignore if event is cancelled.
+     * Ignore if event is cancelled, same as [cancelAffected].
      */
     val ignoreCancelled
         get() = false
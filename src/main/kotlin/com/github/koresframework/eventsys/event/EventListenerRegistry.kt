@@ -75,6 +75,33 @@ interface EventListenerRegistry {
                           listener: Any,
                           ctx: EnvironmentContext = EnvironmentContext()): ListenerRegistryResults
 
+    /**
+     * Register all method event listeners inside each listener instance of [listeners], paired with their owner.
+     *
+     * @param listeners Pairs of owner and listener instance.
+     * @return [ListenerRegistryResults] containing data about registration of all listeners.
+     * @see registerListeners
+     */
+    fun registerListeners(listeners: Collection<@JvmSuppressWildcards Pair<Any, Any>>): ListenerRegistryResults =
+            this.registerListeners(listeners, EnvironmentContext())
+
+    /**
+     * Register all method event listeners inside each listener instance of [listeners], paired with their owner.
+     *
+     * Implementations may generate listener classes concurrently and register all listeners at once,
+     * which is a lot faster than registering listener instances one by one.
+     *
+     * @param listeners Pairs of owner and listener instance.
+     * @param ctx Context.
+     * @return [ListenerRegistryResults] containing data about registration of all listeners.
+     * @see registerListeners
+     */
+    fun registerListeners(listeners: Collection<@JvmSuppressWildcards Pair<Any, Any>>,
+                          ctx: EnvironmentContext): ListenerRegistryResults =
+            ListenerRegistryResults(listeners.flatMap { (owner, listener) ->
+                this.registerListeners(owner, listener, ctx).results
+            })
+
     /**
      * Register [method] as [EventListener]. This method must be annotated with [Listener] annotation.
      *
@@ -31,8 +31,11 @@ import com.github.koresframework.eventsys.channel.ChannelSet
 import com.github.koresframework.eventsys.context.EnvironmentContext
 import com.github.koresframework.eventsys.gen.event.EventGenerator
 import com.github.koresframework.eventsys.result.DispatchResult
+import com.github.koresframework.eventsys.result.ListenExecutionResult
 import com.github.koresframework.eventsys.util.getEventType
 import java.lang.reflect.Type
+import java.util.concurrent.CompletableFuture
+import java.util.function.Supplier
 
 /**
  * Event manager.
@@ -293,6 +296,124 @@ interface EventManager {
 
     //////////// /Async
 
+    //////////// Ordered Async
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] (all channels).
+     *
+     * Non blocking asynchronous dispatch of all listeners in a single task, see [EventDispatcher.dispatchOrderedAsync].
+     *
+     * All listeners will be called (no matter the channel it listen).
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     */
+    fun <T : Event> dispatchOrderedAsync(event: T, dispatcher: Any) =
+            this.dispatchOrderedAsync(event, dispatcher, ChannelSet.Expression.ALL, EnvironmentContext())
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel].
+     *
+     * Non blocking asynchronous dispatch of all listeners in a single task, see [EventDispatcher.dispatchOrderedAsync].
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event (`-1` = all).
+     */
+    fun <T : Event> dispatchOrderedAsync(event: T, dispatcher: Any, channel: String) =
+            this.dispatchOrderedAsync(event, dispatcher, channel, EnvironmentContext())
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel].
+     *
+     * Non blocking asynchronous dispatch of all listeners in a single task, see [EventDispatcher.dispatchOrderedAsync].
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event (`-1` = all).
+     * @param ctx Context.
+     */
+    fun <T : Event> dispatchOrderedAsync(event: T, dispatcher: Any, channel: String, ctx: EnvironmentContext) =
+            this.dispatchOrderedAsync(event, getEventType(event), dispatcher, channel, ctx)
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel].
+     *
+     * This dispatch also includes [generic type information][type], normally EventSys infer the type
+     * from generated event class, but if inference fails, or the class does not have generic information,
+     * you need to use this method to dispatch events.
+     *
+     * Non blocking asynchronous dispatch of all listeners in a single task, see [EventDispatcher.dispatchOrderedAsync].
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param type Information of generic event type.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event.
+     * @param ctx Context.
+     */
+    fun <T : Event> dispatchOrderedAsync(event: T, type: Type, dispatcher: Any, channel: String, ctx: EnvironmentContext) =
+            this.eventDispatcher.dispatchOrderedAsync(event, type, dispatcher, channel, ctx)
+
+    //////////// /Ordered Async
+
+    //////////// Post
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] (all channels), without
+     * collecting results, see [EventDispatcher.post].
+     *
+     * All listeners will be called (no matter the channel it listen).
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     */
+    fun <T : Event> post(event: T, dispatcher: Any) =
+            this.post(event, dispatcher, ChannelSet.Expression.ALL, EnvironmentContext())
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel], without
+     * collecting results, see [EventDispatcher.post].
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event (`-1` = all).
+     */
+    fun <T : Event> post(event: T, dispatcher: Any, channel: String) =
+            this.post(event, dispatcher, channel, EnvironmentContext())
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel], without
+     * collecting results, see [EventDispatcher.post].
+     *
+     * Provide a reusable [ctx] to avoid context allocation in every dispatch.
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event (`-1` = all).
+     * @param ctx Context.
+     */
+    fun <T : Event> post(event: T, dispatcher: Any, channel: String, ctx: EnvironmentContext) =
+            this.post(event, getEventType(event), dispatcher, channel, ctx)
+
+    /**
+     * Dispatch an [Event] to all [EventListener]s that listen to the [event] in [channel], without
+     * collecting results, see [EventDispatcher.post].
+     *
+     * This dispatch also includes [generic type information][type], normally EventSys infer the type
+     * from generated event class, but if inference fails, or the class does not have generic information,
+     * you need to use this method to dispatch events.
+     *
+     * @param event [Event] to dispatch do listeners.
+     * @param type Information of generic event type.
+     * @param dispatcher Dispatcher of the [event].
+     * @param channel Channel to dispatch event.
+     * @param ctx Context.
+     */
+    fun <T : Event> post(event: T, type: Type, dispatcher: Any, channel: String, ctx: EnvironmentContext) =
+            this.eventDispatcher.post(event, type, dispatcher, channel, ctx)
+
+    //////////// /Post
+
 }
 
 /**
@@ -312,4 +433,40 @@ interface EventDispatcher {
                              channel: String,
                              isAsync: Boolean,
                              ctx: EnvironmentContext): DispatchResult<T>
+
+    /**
+     * Dispatch [event] to all listeners which listen to [event] in [channel] (negative channel for
+     * all listeners) in a single asynchronous task. Listeners are called sequentially, in
+     * [priority][EventListener.priority] order and with same [Cancellable] semantics of synchronous dispatch,
+     * the dispatch will never block current thread.
+     *
+     * Default implementation runs a synchronous [dispatch] in the [common pool][java.util.concurrent.ForkJoinPool.commonPool].
+     *
+     * @return Future completed with results of all listeners, in the order they were called.
+     */
+    fun <T : Event> dispatchOrderedAsync(event: T,
+                                         eventType: Type,
+                                         dispatcher: Any,
+                                         channel: String,
+                                         ctx: EnvironmentContext): CompletableFuture<List<ListenExecutionResult<T>>> =
+            CompletableFuture.supplyAsync(Supplier {
+                this.dispatch(event, eventType, dispatcher, channel, false, ctx).await()
+            })
+
+    /**
+     * Synchronously dispatch [event] to all listeners which listen to [event] in [channel] (negative channel for
+     * all listeners), without collecting results. Listener failures are only reported to the logger.
+     *
+     * This is intended for call sites which does not use [DispatchResult], implementations should
+     * avoid allocations for each listener.
+     *
+     * Default implementation calls [dispatch] and discards the result.
+     */
+    fun <T : Event> post(event: T,
+                         eventType: Type,
+                         dispatcher: Any,
+                         channel: String,
+                         ctx: EnvironmentContext) {
+        this.dispatch(event, eventType, dispatcher, channel, false, ctx)
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.event
+
+import com.github.koresframework.eventsys.impl.EventListenerContainer
+
+/**
+ * An [EventListenerRegistry] which notifies [observers][EventListenerRegistryObserver] about changes
+ * in the registered listeners.
+ */
+interface ObservableEventListenerRegistry : EventListenerRegistry {
+
+    /**
+     * Adds an [observer] to be notified of listener registration changes.
+     */
+    fun addObserver(observer: EventListenerRegistryObserver)
+
+    /**
+     * Removes a previously added [observer].
+     */
+    fun removeObserver(observer: EventListenerRegistryObserver)
+}
+
+/**
+ * Observer of [EventListenerRegistry] changes.
+ *
+ * Notifications are delivered on the thread which changed the registry, after the change is visible to
+ * [EventListenerRegistry.getListenersContainers].
+ */
+interface EventListenerRegistryObserver {
+
+    /**
+     * Called when a [container] is registered.
+     */
+    fun onRegister(container: EventListenerContainer<*>)
+
+    /**
+     * Called when all [containers] are registered at once, such as by
+     * [bulk registration][EventListenerRegistry.registerListeners]. Calls [onRegister] for each container by default.
+     */
+    fun onRegisterAll(containers: List<EventListenerContainer<*>>) {
+        containers.forEach(this::onRegister)
+    }
+
+    /**
+     * Called when a [container] is unregistered. Does nothing by default.
+     */
+    fun onUnregister(container: EventListenerContainer<*>) {
+    }
+}
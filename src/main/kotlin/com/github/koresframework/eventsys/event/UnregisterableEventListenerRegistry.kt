@@ -0,0 +1,54 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.event
+
+/**
+ * An [EventListenerRegistry] which supports unregistration of listeners.
+ */
+interface UnregisterableEventListenerRegistry : EventListenerRegistry {
+
+    /**
+     * Unregisters [eventListener] from all event types and channels it was registered to.
+     *
+     * @param eventListener Listener to unregister.
+     * @return Whether [eventListener] was registered or not.
+     */
+    fun unregisterListener(eventListener: EventListener<*>): Boolean
+
+    /**
+     * Unregisters all listeners registered by [owner].
+     *
+     * Method listener classes generated on behalf of [owner] are released from generator caches when no other owner
+     * has listeners of the same class registered, so they (and the class loader of [owner] listeners) could be
+     * unloaded once unregistered listeners are no longer reachable.
+     *
+     * @param owner Owner of listeners.
+     * @return Amount of listeners unregistered.
+     */
+    fun unregisterAll(owner: Any): Int
+}
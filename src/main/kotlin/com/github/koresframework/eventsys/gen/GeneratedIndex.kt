@@ -0,0 +1,117 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.gen
+
+import com.github.jonathanxd.kores.base.MethodDeclaration
+import com.github.jonathanxd.kores.type.canonicalName
+import com.github.jonathanxd.kores.type.concreteType
+import com.github.jonathanxd.kores.type.identification
+import com.github.koresframework.eventsys.gen.event.EventClassSpecification
+import java.lang.reflect.Type
+import java.util.*
+
+/**
+ * Index of classes generated at compile-time by [annotation processor][com.github.koresframework.eventsys.ap.AnnotationProcessor].
+ *
+ * The index is a `META-INF/eventsys/generated.index` resource, each line maps a key to the binary name of the
+ * generated class, separated by a space. Indexes of all resources visible to a class loader are merged.
+ */
+internal object GeneratedIndex {
+
+    const val LOCATION = "META-INF/eventsys/generated.index"
+
+    private val indexes = WeakHashMap<ClassLoader, Map<String, String>>()
+
+    fun factoryKey(factoryType: Type): String =
+            "factory ${factoryType.concreteType.canonicalName}"
+
+    /**
+     * Key of event implementation generated for [specification], which must include the extensions registered
+     * in the generator, as provided to [EventClassGenerator][com.github.koresframework.eventsys.gen.event.EventClassGenerator].
+     */
+    fun eventKey(specification: EventClassSpecification): String =
+            "event ${specification.type.identification}[${
+                specification.additionalProperties.joinToString(separator = ",") {
+                    "${it.propertyName}:${it.type.identification}"
+                }
+            }][${
+                specification.extensions.joinToString(separator = ",") {
+                    "${it.implement?.identification}:${it.extensionClass?.identification}"
+                }
+            }]"
+
+    fun listenerKey(listenerClass: Type, method: MethodDeclaration): String =
+            "listener ${listenerClass.concreteType.canonicalName}#${method.name}(${
+                method.parameters.joinToString(separator = ",") { it.type.concreteType.canonicalName }
+            })"
+
+    /**
+     * Finds class generated for [key] in the index of [classLoader].
+     */
+    fun find(key: String, classLoader: ClassLoader?): Class<*>? {
+        val loader = classLoader ?: ClassLoader.getSystemClassLoader()
+        val name = this.index(loader)[key] ?: return null
+
+        return try {
+            Class.forName(name, true, loader)
+        } catch (e: ClassNotFoundException) {
+            null
+        } catch (e: LinkageError) {
+            null
+        }
+    }
+
+    private fun index(classLoader: ClassLoader): Map<String, String> =
+            synchronized(this.indexes) {
+                this.indexes.getOrPut(classLoader) { this.read(classLoader) }
+            }
+
+    private fun read(classLoader: ClassLoader): Map<String, String> {
+        val index = mutableMapOf<String, String>()
+
+        classLoader.getResources(LOCATION).toList().forEach { url ->
+            url.openStream().bufferedReader(Charsets.UTF_8).useLines { this.parse(it, index) }
+        }
+
+        return index
+    }
+
+    /**
+     * Parses index [lines] into [index].
+     */
+    fun parse(lines: Sequence<String>, index: MutableMap<String, String>) {
+        lines.map(String::trim)
+                .filter { it.isNotEmpty() && !it.startsWith("#") }
+                .forEach {
+                    val separator = it.lastIndexOf(' ')
+
+                    if (separator > 0)
+                        index[it.substring(0, separator)] = it.substring(separator + 1)
+                }
+    }
+}
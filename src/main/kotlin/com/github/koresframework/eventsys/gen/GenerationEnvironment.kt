@@ -41,8 +41,12 @@ interface GenerationEnvironment {
     fun getTypeResolver(type: Type): KoresTypeResolver<*>
 }
 
-class CommonGenerationEnvironment : GenerationEnvironment {
-    override val declarationCache: DeclarationCache = DeclarationCache()
+/**
+ * Common generation environment, [declarationCache] is thread-safe and could be shared between environments.
+ */
+class CommonGenerationEnvironment @JvmOverloads constructor(
+        override val declarationCache: DeclarationCache = DeclarationCache()
+) : GenerationEnvironment {
     override val genericResolver: GenericResolver = MixedResolver(null)
 
     override fun getTypeResolver(type: Type): KoresTypeResolver<*> = type.defaultResolver
@@ -29,6 +29,12 @@ package com.github.koresframework.eventsys.gen
 
 import com.github.jonathanxd.kores.base.ClassDeclaration
 
+/**
+ * A declaration of a class, which [resolver] generates or resolves on demand.
+ *
+ * Resolvers of generated classes are single-flight: when resolved concurrently, the class is generated once,
+ * and other threads waits only for this declaration to be resolved.
+ */
 data class ResolvableDeclaration<out T>(
     val classDeclaration: ClassDeclaration,
     val resolver: () -> T
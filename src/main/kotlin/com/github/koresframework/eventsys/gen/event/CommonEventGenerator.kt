@@ -35,20 +35,24 @@ import com.github.jonathanxd.kores.base.MethodDeclaration
 import com.github.jonathanxd.kores.type.`is`
 import com.github.jonathanxd.kores.type.bindedDefaultResolver
 import com.github.jonathanxd.kores.type.canonicalName
+import com.github.jonathanxd.kores.type.concreteType
+import com.github.jonathanxd.kores.type.koresType
+import com.github.koresframework.eventsys.bootstrap.FactoryBootstrap
 import com.github.koresframework.eventsys.context.EnvironmentContext
 import com.github.koresframework.eventsys.event.Event
 import com.github.koresframework.eventsys.event.EventListener
 import com.github.koresframework.eventsys.event.ListenerSpec
 import com.github.koresframework.eventsys.extension.ExtensionSpecification
 import com.github.koresframework.eventsys.gen.CommonGenerationEnvironment
+import com.github.koresframework.eventsys.gen.GeneratedIndex
 import com.github.koresframework.eventsys.gen.GenerationEnvironment
 import com.github.koresframework.eventsys.gen.ResolvableDeclaration
 import com.github.koresframework.eventsys.gen.check.CheckHandler
 import com.github.koresframework.eventsys.gen.check.DefaultCheckHandler
 import com.github.koresframework.eventsys.logging.LoggerInterface
-import com.github.koresframework.eventsys.reflect.isEqual
 import com.github.koresframework.eventsys.util.ESysExecutor
 import com.github.koresframework.eventsys.util.EventImplementationGenerationFailure
+import com.github.koresframework.eventsys.util.ExecutorStrategy
 import com.github.koresframework.eventsys.util.isPublic
 import java.lang.IllegalArgumentException
 import java.lang.reflect.Method
@@ -58,15 +62,24 @@ import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executors
 import java.util.function.Supplier
 
+/**
+ * Common implementation of [EventGenerator].
+ *
+ * @param executorStrategy Strategy which creates the executor of asynchronous generation. Generation tasks
+ * could not be dropped, so [bounded executors][ExecutorStrategy.bounded] should use
+ * [BLOCK][com.github.koresframework.eventsys.util.OverloadPolicy.BLOCK] or
+ * [CALLER_RUNS][com.github.koresframework.eventsys.util.OverloadPolicy.CALLER_RUNS] policy.
+ */
 class CommonEventGenerator @JvmOverloads constructor(
         override val logger: LoggerInterface,
-        override val generationEnvironment: GenerationEnvironment = CommonGenerationEnvironment()
+        override val generationEnvironment: GenerationEnvironment = CommonGenerationEnvironment(),
+        executorStrategy: ExecutorStrategy = ExecutorStrategy.CACHED
 ) : EventGenerator {
 
     private val factoryImplCache = ConcurrentHashMap<Type, ResolvableDeclaration<*>>()
-    private val eventImplCache = ConcurrentHashMap<EventClass, ResolvableDeclaration<Class<*>>>()
+    private val eventImplCache = ConcurrentHashMap<Type, ConcurrentHashMap<EventClass, ResolvableDeclaration<Class<*>>>>()
     private val listenerImplCache =
-            ConcurrentHashMap<MethodDeclaration, ResolvableDeclaration<Class<out EventListener<Event>>>>()
+            ConcurrentHashMap<Type, ConcurrentHashMap<MethodDeclaration, ResolvableDeclaration<Class<out EventListener<Event>>>>>()
 
     private val extensionMap =
             ConcurrentListMap<Type, ExtensionSpecification>(ConcurrentHashMap())
@@ -76,7 +89,7 @@ class CommonEventGenerator @JvmOverloads constructor(
     override var checkHandler: CheckHandler = DefaultCheckHandler()
 
     // Executor
-    private val executor = ESysExecutor(this.options, Executors.newCachedThreadPool())
+    override val executor = ESysExecutor(this.options, executorStrategy.createExecutor(Executors.defaultThreadFactory()))
 
     override fun <T : Any> createFactoryAsync(factoryType: Type,
                                               ctx: EnvironmentContext): CompletableFuture<ResolvableDeclaration<T>> =
@@ -115,7 +128,10 @@ class CommonEventGenerator @JvmOverloads constructor(
             ctx: EnvironmentContext
     ): CompletableFuture<ResolvableDeclaration<EventListener<Event>>> =
             CompletableFuture.supplyAsync(Supplier<ResolvableDeclaration<EventListener<Event>>> {
-                this.createMethodListener(listenerClass, method, instance, listenerSpec, ctx)
+                // Generates listener class in executor, only instance is created when resolved
+                this.createMethodListener(listenerClass, method, listenerSpec, ctx).also { it.resolve() }.let {
+                    MethodListenerGenerator.create(it, method, instance)
+                }
             }, this.executor)
 
     override fun createMethodListenerAsync(
@@ -125,7 +141,8 @@ class CommonEventGenerator @JvmOverloads constructor(
             ctx: EnvironmentContext
     ): CompletableFuture<ResolvableDeclaration<Class<out EventListener<Event>>>> =
             CompletableFuture.supplyAsync(Supplier<ResolvableDeclaration<Class<out EventListener<Event>>>> {
-                this.createMethodListener(listenerClass, method, listenerSpec, ctx)
+                // Generates listener class in executor
+                this.createMethodListener(listenerClass, method, listenerSpec, ctx).also { it.resolve() }
             }, this.executor)
 
     override fun registerExtension(
@@ -136,6 +153,8 @@ class CommonEventGenerator @JvmOverloads constructor(
             return
 
         this.extensionMap.putToList(base, extensionSpecification)
+        this.invalidateEventClasses(base)
+        FactoryBootstrap.invalidateCallSites()
     }
 
     override fun <T : Event> registerEventImplementation(
@@ -143,22 +162,26 @@ class CommonEventGenerator @JvmOverloads constructor(
             implementation: Class<out T>
     ) {
         val evtClass = EventClass(
-                eventClassSpecification.type,
                 eventClassSpecification.additionalProperties,
-                emptyList(),
                 eventClassSpecification.extensions
         )
 
-        this.eventImplCache[evtClass] = ResolvableDeclaration(
+        this.implementationsOf(eventClassSpecification.type)[evtClass] = ResolvableDeclaration(
                 classDeclaration = this.generationEnvironment.declarationCache[implementation] as ClassDeclaration,
                 resolver = { implementation })
+
+        FactoryBootstrap.invalidateCallSites()
     }
 
     override fun <T : Any> createFactory(factoryType: Type,
                                          ctx: EnvironmentContext): ResolvableDeclaration<T> {
         @Suppress("UNCHECKED_CAST")
         return this.factoryImplCache.computeIfAbsent(factoryType) {
-            EventFactoryClassGenerator.create<T>(
+            this.findGenerated(GeneratedIndex.factoryKey(factoryType), factoryType)?.let { impl ->
+                ResolvableDeclaration(this.generationEnvironment.declarationCache[impl] as ClassDeclaration, lazy {
+                    impl.getConstructor(EventGenerator::class.java).newInstance(this)
+                })
+            } ?: EventFactoryClassGenerator.create<T>(
                     this,
                     factoryType,
                     this.logger,
@@ -169,63 +192,98 @@ class CommonEventGenerator @JvmOverloads constructor(
 
     }
 
+    @Suppress("UNCHECKED_CAST")
     override fun <T : Event> createEventClass(
             type: Type,
             additionalProperties: List<PropertyInfo>,
             extensions: List<ExtensionSpecification>,
             ctx: EnvironmentContext
     ): ResolvableDeclaration<Class<out T>> {
+        val eventClass = EventClass(additionalProperties, extensions)
+        val implementations = this.implementationsOf(type)
+
+        implementations[eventClass]?.let {
+            return it as ResolvableDeclaration<Class<out T>>
+        }
 
         if (type.isPublic() == Tristate.FALSE) {
             throw EventImplementationGenerationFailure("The provided '${type.canonicalName}' for event implementation generation must be public.")
         }
 
+        return implementations.computeIfAbsent(eventClass) {
+            val specification = this.eventClassSpecification(type, additionalProperties, extensions)
+
+            this.findGenerated(GeneratedIndex.eventKey(specification), type)?.let { impl ->
+                ResolvableDeclaration(this.generationEnvironment.declarationCache[impl] as ClassDeclaration) {
+                    impl
+                }
+            } ?: EventClassGenerator.genImplementation<T>(
+                    specification,
+                    this,
+                    this.generationEnvironment,
+                    ctx
+            )
+        } as ResolvableDeclaration<Class<out T>>
+    }
+
+    /**
+     * Creates the specification of event implementation of [type], with the extensions registered for [type]
+     * followed by [extensions].
+     */
+    internal fun eventClassSpecification(
+            type: Type,
+            additionalProperties: List<PropertyInfo>,
+            extensions: List<ExtensionSpecification>
+    ): EventClassSpecification {
         val currExts =
                 (this.extensionMap[type]
                         ?: this.extensionMap.entries
                                 .firstOrNull { (k, _) -> k.`is`(type) }?.value).orEmpty()
 
-        val eventClass = EventClass(
-                type,
-                additionalProperties,
-                currExts,
-                extensions
-        )
+        return EventClassSpecification(type, additionalProperties, currExts + extensions)
+    }
 
-        cleanup(eventClass)
+    /**
+     * Gets implementations of event [type], keyed by [Kores type][koresType] so the same type provided as
+     * a class or as a Kores type shares implementations. Looks up before [computeIfAbsent][ConcurrentHashMap.computeIfAbsent],
+     * which locks even when the key is present, like [DeclarationCache.cached][com.github.koresframework.eventsys.util.DeclarationCache].
+     */
+    private fun implementationsOf(type: Type): ConcurrentHashMap<EventClass, ResolvableDeclaration<Class<*>>> {
+        val key = type.koresType
 
-        @Suppress("UNCHECKED_CAST")
-        return this.eventImplCache.computeIfAbsent(eventClass) {
-            EventClassGenerator.genImplementation<T>(
-                    eventClass.spec,
-                    this,
-                    this.generationEnvironment,
-                    ctx
-            )
-        } as ResolvableDeclaration<Class<out T>>
+        return this.eventImplCache[key] ?: this.eventImplCache.computeIfAbsent(key) { ConcurrentHashMap() }
     }
 
     /**
-     * Removes all old event implementation classes that does not have same extensions as current extensions.
+     * Removes all event implementation classes generated for [base], those classes does not implement
+     * the extensions registered after their generation.
      */
-    private fun cleanup(eventClass: EventClass) {
-        synchronized(this.eventImplCache) {
-            this.eventImplCache.keys.toSet()
-                    .filter { it.currExts != eventClass.currExts && it.userExts == eventClass.userExts }
-                    .forEach { this.eventImplCache.remove(it) }
+    private fun invalidateEventClasses(base: Type) {
+        this.eventImplCache.keys.filter { it.`is`(base) }.forEach {
+            this.eventImplCache.remove(it)
         }
     }
 
+    @Suppress("UNCHECKED_CAST")
     override fun createMethodListener(
             listenerClass: Type,
             method: MethodDeclaration,
             listenerSpec: ListenerSpec,
             ctx: EnvironmentContext
     ): ResolvableDeclaration<Class<out EventListener<Event>>> =
-            this.listenerImplCache.computeIfAbsent(method) {
-                MethodListenerGenerator.createClass(listenerClass, it, listenerSpec)
+            this.listenerImplCache.computeIfAbsent(listenerClass) { ConcurrentHashMap() }.computeIfAbsent(method) {
+                this.findGenerated(GeneratedIndex.listenerKey(listenerClass, it), listenerClass)?.let { impl ->
+                    ResolvableDeclaration(this.generationEnvironment.declarationCache[impl] as ClassDeclaration) {
+                        impl as Class<out EventListener<Event>>
+                    }
+                } ?: MethodListenerGenerator.createClass(listenerClass, it, listenerSpec, this.logger, ctx)
             }
 
+    override fun releaseListenerClass(listenerClass: Type) {
+        this.listenerImplCache.remove(listenerClass)
+        this.generationEnvironment.declarationCache.invalidate(listenerClass)
+    }
+
     override fun createMethodListener(
             listenerClass: Type,
             method: MethodDeclaration,
@@ -244,31 +302,42 @@ class CommonEventGenerator @JvmOverloads constructor(
             listenerSpec: ListenerSpec,
             ctx: EnvironmentContext
     ): ResolvableDeclaration<EventListener<Event>> =
-            this.generationEnvironment.declarationCache[listenerClass].methods.first { it.isEqual(method) }.let {
+            this.findMethodDeclaration(listenerClass, method).let {
                 createMethodListener(listenerClass, it, instance, listenerSpec, ctx)
             }
 
+    /**
+     * Finds the declaration of [method] in [type] hierarchy through the indexes of the declaration cache.
+     */
+    private fun findMethodDeclaration(type: Type, method: Method): MethodDeclaration =
+            this.generationEnvironment.declarationCache.findMethod(type, method)
+                    ?: throw IllegalStateException("Cannot find declaration of listener method '$method'.")
+
+    /**
+     * Finds class generated at compile-time for [key] in the index visible to the class loader of [owner].
+     */
+    private fun findGenerated(key: String, owner: Type): Class<*>? {
+        if (!this.options[EventGeneratorOptions.USE_GENERATED_INDEX])
+            return null
+
+        val ownerClass = owner.concreteType.bindedDefaultResolver.resolve().rightOrNull() as? Class<*> ?: return null
+
+        return GeneratedIndex.find(key, ownerClass.classLoader)
+    }
+
     override fun createListenerSpecFromMethod(method: Method): ListenerSpec =
-            this.createListenerSpecFromMethod(this.generationEnvironment
-                    .declarationCache[method.declaringClass]
-                    .methods
-                    .first {
-                        it.isEqual(
-                                method
-                        )
-                    })
+            this.createListenerSpecFromMethod(this.findMethodDeclaration(method.declaringClass, method))
 
     override fun createListenerSpecFromMethod(method: MethodDeclaration): ListenerSpec =
             ListenerSpec.fromMethodDeclaration(method)
 
+    /**
+     * Key of event implementation of a type, extensions registered for the type are not part of the key
+     * since implementations are invalidated when an extension is registered.
+     */
     private data class EventClass(
-            val typeInfo: Type,
             val additionalProperties: List<PropertyInfo>,
-            val currExts: List<ExtensionSpecification>,
             val userExts: List<ExtensionSpecification>
-    ) {
-        val spec: EventClassSpecification =
-                EventClassSpecification(typeInfo, additionalProperties, currExts + userExts)
-    }
+    )
 
 }
\ No newline at end of file
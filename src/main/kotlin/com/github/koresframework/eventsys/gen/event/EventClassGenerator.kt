@@ -69,7 +69,9 @@ import com.github.koresframework.eventsys.extension.ExtensionSpecification
 import com.github.koresframework.eventsys.gen.GeneratedEventClass
 import com.github.koresframework.eventsys.gen.GenerationEnvironment
 import com.github.koresframework.eventsys.gen.ResolvableDeclaration
+import com.github.koresframework.eventsys.gen.save.ClassCache
 import com.github.koresframework.eventsys.gen.save.ClassSaver
+import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.logging.MessageType
 import com.github.koresframework.eventsys.reflect.findImplementation
 import com.github.koresframework.eventsys.reflect.getName
@@ -146,21 +148,28 @@ internal object EventClassGenerator {
         val classDeclaration =
                 genImplementationDeclaration(eventClassSpecification, eventGenerator, generationEnvironment, ctx)
 
-        return genImplementationFromDeclaration(classDeclaration)
+        return genImplementationFromDeclaration(classDeclaration, eventGenerator.logger, ctx, eventClassSpecification)
     }
 
     @Suppress("UNCHECKED_CAST")
-    fun <T : Event> genImplementationFromDeclaration(eventDeclaration: ClassDeclaration): ResolvableDeclaration<Class<T>> {
-        val resolver = lazy(LazyThreadSafetyMode.NONE) {
-            val generator = BytecodeGenerator()
+    fun <T : Event> genImplementationFromDeclaration(
+            eventDeclaration: ClassDeclaration,
+            logger: LoggerInterface,
+            ctx: EnvironmentContext,
+            eventClassSpecification: EventClassSpecification? = null
+    ): ResolvableDeclaration<Class<T>> {
+        // Single-flight: concurrent resolvers wait for the thread generating this class only
+        val resolver = lazy(LazyThreadSafetyMode.SYNCHRONIZED) {
+            val (bytes, disassembled) = ClassCache.getOrGenerate(eventDeclaration, logger, ctx, eventClassSpecification) {
+                val generator = BytecodeGenerator()
 
-            generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
-            generator.options.set(GENERATE_BRIDGE_METHODS, true)
+                generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
+                generator.options.set(GENERATE_BRIDGE_METHODS, true)
 
-            val bytecodeClass = generator.process(eventDeclaration)[0]
+                val bytecodeClass = generator.process(eventDeclaration)[0]
 
-            val bytes = bytecodeClass.bytecode
-            val disassembled = lazy { bytecodeClass.disassembledCode }
+                bytecodeClass.bytecode to lazy { bytecodeClass.disassembledCode }
+            }
 
             try {
                 val generatedEventClass = EventGenClassLoader.defineClass(
@@ -310,7 +319,7 @@ internal object EventClassGenerator {
         methods += this.genExtensionGetter(extensions, plain)
 
         // Gen getProperties & getProperty & hasProperty
-        methods += this.genPropertyHolderMethods()
+        methods += this.genPropertyHolderMethods(properties)
 
         methods += this.genDefaultMethodsImpl(eventTypeDeclaration, methods, cache)
 
@@ -630,8 +639,6 @@ internal object EventClassGenerator {
             }
         }
 
-        genConstructorPropertiesMap(constructorBody, properties)
-
         return constructor
 
     }
@@ -947,20 +954,13 @@ internal object EventClassGenerator {
         return methods
     }
 
-    private fun genPropertyHolderMethods(): MethodDeclaration {
+    private fun genPropertyHolderMethods(properties: List<PropertyInfo>): MethodDeclaration {
         return MethodDeclaration.Builder.builder()
                 .modifiers(KoresModifier.PUBLIC)
                 .name("getProperties")
                 .returnType(propertiesFieldType)
                 .annotations(runtimeAnnotation(Override::class.java))
-                .body(
-                        Instructions.fromPart(
-                                returnValue(
-                                        propertiesFieldType,
-                                        accessThisField(propertiesFieldType, propertiesUnmodName)
-                                )
-                        )
-                )
+                .body(genLazyPropertiesMap(properties))
                 .build()
     }
 
@@ -1164,25 +1164,16 @@ fun getProperties(
     return list
 }
 
+/**
+ * Property map field, the map is lazily created by `getProperties` (see [genLazyPropertiesMap]), so
+ * constructing an event does not allocate [Property] instances.
+ */
 fun getPropertyFields(): List<FieldDeclaration> {
     return listOf(
             FieldDeclaration.Builder.builder()
-                    .modifiers(KoresModifier.PRIVATE, KoresModifier.FINAL)
-                    .type(propertiesFieldType)
-                    .name(propertiesFieldName)
-                    .value(HashMap::class.java.invokeConstructor())
-                    .build(),
-            FieldDeclaration.Builder.builder()
-                    .modifiers(KoresModifier.PRIVATE, KoresModifier.FINAL)
+                    .modifiers(KoresModifier.PRIVATE)
                     .type(propertiesFieldType)
                     .name(propertiesUnmodName)
-                    .value(
-                            Collections::class.java.invokeStatic(
-                                    "unmodifiableMap",
-                                    typeSpec(Map::class.java, Map::class.java),
-                                    listOf(accessThisField(propertiesFieldType, propertiesFieldName))
-                            )
-                    )
                     .build()
     )
 }
@@ -1192,47 +1183,88 @@ private fun getSetter(
         name: String,
         propertyType: Type,
         cache: DeclarationCache
-): MethodDeclaration? {
-
-    val capitalized = name.capitalize()
-    val setterName = "set$capitalized"
-
-    return cache.getMethods(type).map { (_, it) -> it }.firstOrNull {
-        it.name == setterName && it.parameters.singleOrNull()?.type?.`is`(
-                propertyType
-        ) == true
-    }
-}
+): MethodDeclaration? = cache.getSetter(type, name, propertyType)
 
 private fun getGetter(
         type: TypeDeclaration,
         name: String,
         cache: DeclarationCache
-): MethodDeclaration? {
+): MethodDeclaration? = cache.getGetter(type, name)
 
-    val capitalized = name.capitalize()
-    val getterName = "get$capitalized"
-    val isName = "is$capitalized"
+private fun hasMethod(klass: Type, method: MethodDeclaration, cache: DeclarationCache): Boolean =
+        cache.hasMethod(klass.koresType, method)
 
-    return cache.getMethods(type).map { (_, it) -> it }.firstOrNull {
-        it.name == getterName || it.name == isName
-    }
-}
+/**
+ * Generates the `getProperties` body, which creates the immutable property map in the first call
+ * and stores it in the [property map field][getPropertyFields].
+ *
+ * Property names and types are class constants, only the [Property] instances bound to the event are created
+ * per instance. Concurrent first calls may create the map twice, but all of them are equivalent.
+ */
+fun genLazyPropertiesMap(properties: List<PropertyInfo>): Instructions {
+    val body = MutableInstructions.create()
 
-private fun hasMethod(klass: Type, method: MethodDeclaration, cache: DeclarationCache): Boolean =
-        cache.getMethods(klass.koresType).any { (_, it) -> it.isEqual(method) }
+    val propertiesVariable = variable(
+            propertiesFieldType,
+            propertiesUnmodName,
+            accessThisField(propertiesFieldType, propertiesUnmodName)
+    )
+
+    val mapVariable = variable(
+            propertiesFieldType,
+            propertiesFieldName,
+            HashMap::class.java.invokeConstructor(
+                    constructorTypeSpec(Types.INT),
+                    listOf(Literals.INT((properties.size / 0.75f).toInt() + 1))
+            )
+    )
+
+    val init = MutableInstructions.create()
+
+    init += mapVariable
+
+    genPropertiesMap(init, accessVariable(mapVariable), properties)
 
+    init += setVariableValue(
+            propertiesVariable,
+            Collections::class.java.invokeStatic(
+                    "unmodifiableMap",
+                    typeSpec(Map::class.java, Map::class.java),
+                    listOf(accessVariable(mapVariable))
+            )
+    )
+
+    init += setFieldValue(
+            Alias.THIS, Access.THIS, propertiesFieldType, propertiesUnmodName,
+            accessVariable(propertiesVariable)
+    )
+
+    body += propertiesVariable
+    body += ifStatement(checkNull(accessVariable(propertiesVariable)), init)
+    body += returnValue(propertiesFieldType, accessVariable(propertiesVariable))
+
+    return body
+}
+
+@Deprecated(
+        message = "Properties map is lazily created since 1.9.1, not in the constructor.",
+        replaceWith = ReplaceWith("genPropertiesMap(constructorBody, accessThisField(propertiesFieldType, propertiesFieldName), properties)")
+)
 fun genConstructorPropertiesMap(
         constructorBody: MutableInstructions,
         properties: List<PropertyInfo>
-) {
-    val accessMap = accessThisField(propertiesFieldType, propertiesFieldName)
+) = genPropertiesMap(constructorBody, accessThisField(propertiesFieldType, propertiesFieldName), properties)
 
+fun genPropertiesMap(
+        body: MutableInstructions,
+        accessMap: Instruction,
+        properties: List<PropertyInfo>
+) {
     properties.forEach {
         val realType = it.type
         val inferredType = it.inferredType
 
-        constructorBody += if (!inferredType.`is`(realType)) {
+        body += if (!inferredType.`is`(realType)) {
             invokePut(
                     accessMap,
                     com.github.jonathanxd.kores.literal.Literals.STRING(it.propertyName),
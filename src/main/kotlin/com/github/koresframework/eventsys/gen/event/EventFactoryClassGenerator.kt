@@ -41,6 +41,7 @@ import com.github.jonathanxd.kores.bytecode.VisitLineType
 import com.github.jonathanxd.kores.bytecode.processor.BytecodeGenerator
 import com.github.jonathanxd.kores.common.DynamicMethodSpec
 import com.github.jonathanxd.kores.common.MethodInvokeSpec
+import com.github.jonathanxd.kores.common.MethodTypeSpec
 import com.github.jonathanxd.kores.common.Nothing
 import com.github.jonathanxd.kores.common.VariableRef
 import com.github.jonathanxd.kores.factory.*
@@ -58,6 +59,7 @@ import com.github.koresframework.eventsys.extension.ExtensionSpecification
 import com.github.koresframework.eventsys.gen.GeneratedEventClass
 import com.github.koresframework.eventsys.gen.GenerationEnvironment
 import com.github.koresframework.eventsys.gen.ResolvableDeclaration
+import com.github.koresframework.eventsys.gen.save.ClassCache
 import com.github.koresframework.eventsys.gen.save.ClassSaver
 import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.logging.MessageType
@@ -101,32 +103,54 @@ internal object EventFactoryClassGenerator {
         val (declaration, resolves) =
                 createDeclaration(eventGenerator, factoryType, logger, generationEnvironment, ctx)
 
-        val resolver = lazy(LazyThreadSafetyMode.NONE) {
-            resolves.forEach { it.resolve() }
-
-            val generator = BytecodeGenerator()
-
-            generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
+        // Single-flight: concurrent resolvers wait for the thread generating this class only
+        val resolver = lazy(LazyThreadSafetyMode.SYNCHRONIZED) {
+            resolves.forEach { (_, event) -> event.resolve() }
+
+            val (bytes, disassembled) = ClassCache.getOrGenerate(
+                    declaration,
+                    logger,
+                    ctx,
+                    factoryType,
+                    eventGenerator.options[EventGeneratorOptions.LAZY_EVENT_GENERATION_MODE],
+                    declaration.methods.map { it.returnType }
+            ) {
+                val generator = BytecodeGenerator()
+
+                generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
+
+                val bytecodeClass = try {
+                    generator.process(declaration)[0]
+                } catch (t: Throwable) {
+                    throw IllegalStateException(
+                            "Failed to generate factory implementation of ${factoryType.simpleName}. Declaration: $declaration",
+                            t
+                    )
+                }
 
-            val bytecodeClass = try {
-                generator.process(declaration)[0]
-            } catch (t: Throwable) {
-                throw IllegalStateException(
-                        "Failed to generate factory implementation of ${factoryType.simpleName}. Declaration: $declaration",
-                        t
-                )
+                bytecodeClass.bytecode to lazy(LazyThreadSafetyMode.NONE) { bytecodeClass.disassembledCode }
             }
 
-            val bytes = bytecodeClass.bytecode
-            val disassembled = lazy(LazyThreadSafetyMode.NONE) { bytecodeClass.disassembledCode }
+            // Implementation of top-level factories shares the package of the factory, so it could be defined
+            // through factory lookup.
+            val factoryClass = factoryType.concreteType.bindedDefaultResolver.resolve().rightOrNull()
 
             @Suppress("UNCHECKED_CAST")
             val generatedEventClass = try {
-                EventGenClassLoader.defineClass(
-                        declaration,
-                        bytes,
-                        disassembled
-                ) as GeneratedEventClass<T>
+                if (factoryClass is Class<*> && factoryClass.enclosingClass == null) {
+                    EventGenClassLoader.defineClass(
+                            declaration,
+                            bytes,
+                            disassembled,
+                            factoryClass
+                    ) as GeneratedEventClass<T>
+                } else {
+                    EventGenClassLoader.defineClass(
+                            declaration,
+                            bytes,
+                            disassembled
+                    ) as GeneratedEventClass<T>
+                }
             } catch (t: Throwable) {
                 if (t is IllegalAccessError) {
                     throw FactoryImplementationGenerationFailure("Failed to generate factory implementation, provided type '${factoryType.canonicalName}' must be public.", t)
@@ -148,6 +172,9 @@ internal object EventFactoryClassGenerator {
 
     /**
      * Create [factoryType] instance invoking generated event classes constructor.
+     *
+     * Returns the factory declaration and the event implementations it depends on, along with the specification
+     * (without the extensions registered in [eventGenerator]) which each implementation was requested with.
      */
     @Suppress("UNCHECKED_CAST")
     internal fun createDeclaration(
@@ -156,7 +183,7 @@ internal object EventFactoryClassGenerator {
             logger: LoggerInterface,
             generationEnvironment: GenerationEnvironment,
             ctx: EnvironmentContext
-    ): Pair<ClassDeclaration, List<ResolvableDeclaration<*>>> {
+    ): Pair<ClassDeclaration, List<Pair<EventClassSpecification, ResolvableDeclaration<*>>>> {
 
         val cache = generationEnvironment.declarationCache
         val factoryDeclaration = cache[factoryType]
@@ -167,6 +194,9 @@ internal object EventFactoryClassGenerator {
         val eventGeneratorField = VariableRef(EventGenerator::class.java, "eventGenerator")
 
         val futures = mutableListOf<CompletableFuture<*>>()
+        val specifications = mutableListOf<EventClassSpecification>()
+        val metadataMethods = mutableListOf<MethodDeclaration>()
+        val bootstrapCalls = mutableListOf<(KoresType) -> Unit>()
 
         val declaration = ClassDeclaration.Builder.builder()
                 .modifiers(KoresModifier.PUBLIC)
@@ -282,14 +312,27 @@ internal object EventFactoryClassGenerator {
                                             .options[EventGeneratorOptions.LAZY_EVENT_GENERATION_MODE]
 
                                     when (mode) {
-                                        LazyGenerationMode.BOOTSTRAP ->
-                                            methodBody += genCallToDynamicGeneration(
+                                        LazyGenerationMode.BOOTSTRAP -> {
+                                            val metadataMethod = genDynamicGenerationMetadata(
+                                                    "eventsys\$metadata\$${metadataMethods.size}",
                                                     eventType,
-                                                    eventGeneratorField.name,
                                                     additionalProperties,
-                                                    extensions,
-                                                    methodDeclaration.parameters
+                                                    extensions
                                             )
+
+                                            metadataMethods += metadataMethod
+                                            // The call site refers to the metadata method of the generated class,
+                                            // so it can only be emitted once the class declaration exists.
+                                            bootstrapCalls += { owner ->
+                                                methodBody += genCallToDynamicGeneration(
+                                                        owner,
+                                                        metadataMethod,
+                                                        eventType,
+                                                        eventGeneratorField.name,
+                                                        methodDeclaration.parameters
+                                                )
+                                            }
+                                        }
                                         LazyGenerationMode.REFLECTION ->
                                             methodBody.addAll(
                                                     genCallToDynamicGenerationReflect(
@@ -304,6 +347,11 @@ internal object EventFactoryClassGenerator {
                                     }
 
                                 } else {
+                                    specifications += EventClassSpecification(
+                                            eventType.concreteType,
+                                            additionalProperties,
+                                            extensions
+                                    )
                                     futures += eventGenerator.createEventClassAsync<Event>(
                                             eventType.concreteType,
                                             additionalProperties,
@@ -335,9 +383,11 @@ internal object EventFactoryClassGenerator {
                             }
 
 
-                        })
+                        }.let { it + metadataMethods })
                 .build()
 
+        bootstrapCalls.forEach { it(declaration) }
+
         val c = CompletableFuture.allOf(*futures.toTypedArray())
 
         try {
@@ -347,7 +397,9 @@ internal object EventFactoryClassGenerator {
         }
 
 
-        return declaration to futures.map { it.get() as ResolvableDeclaration<*> }
+        return declaration to futures.mapIndexed { index, future ->
+            specifications[index] to future.get() as ResolvableDeclaration<*>
+        }
     }
 
     private fun getExtensions(
@@ -520,15 +572,50 @@ internal object EventFactoryClassGenerator {
                     ?.values
                     ?.get("value") as? String ?: parameter.name
 
+    /**
+     * Generates the static method which provides the constant metadata of a bootstrap call site: the event type,
+     * the additional properties and the extensions. [FactoryBootstrap] invokes it once per call site.
+     */
+    private fun genDynamicGenerationMetadata(
+            name: String,
+            evType: Type,
+            additionalProperties: List<PropertyInfo>,
+            extensions: List<ExtensionSpecification>
+    ): MethodDeclaration =
+            MethodDeclaration.Builder.builder()
+                    .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC)
+                    .name(name)
+                    .returnType(Array<Any>::class.java)
+                    .body(
+                            Instructions.fromVarArgs(
+                                    returnValue(
+                                            Array<Any>::class.java,
+                                            createArray(
+                                                    Array<Any>::class.java, listOf(Literals.INT(3)),
+                                                    listOf(
+                                                            createGenericType(evType),
+                                                            additionalProperties.asPropArgs(),
+                                                            extensions.asExtArgs()
+                                                    )
+                                            )
+                                    )
+                            )
+                    )
+                    .build()
+
+    /**
+     * Generates the invokedynamic call to [FactoryBootstrap]. Only the event generator and the factory
+     * arguments are dynamic, the [metadataMethod] handle and the parameter names are bootstrap arguments.
+     */
     private fun genCallToDynamicGeneration(
+            owner: KoresType,
+            metadataMethod: MethodDeclaration,
             evType: Type,
             eventGeneratorParam: String,
-            additionalProperties: MutableList<PropertyInfo>,
-            extensions: List<ExtensionSpecification>,
             params: List<KoresParameter>
     ): Instruction {
 
-        val (paramNames, args) = getNamesAndArgsArrs(params)
+        val args = params.map { it.toVariableAccess() }
 
         return returnValue(
                 evType, invokeDynamic(
@@ -539,23 +626,20 @@ internal object EventFactoryClassGenerator {
                                 evType,
                                 listOf(
                                         EventGenerator::class.java,
-                                        GenericType::class.java,
-                                        List::class.java,
-                                        List::class.java,
-                                        Array<String>::class.java,
                                         Array<Any>::class.java
                                 )
                         ),
                         listOf(
                                 accessThisField(EventGenerator::class.java, eventGeneratorParam),
-                                createGenericType(evType),
-                                additionalProperties.asPropArgs(),
-                                extensions.asExtArgs(),
-                                paramNames,
-                                args
+                                createArray(Array<Any>::class.java, listOf(Literals.INT(args.size)), args)
                         )
                 ),
-                emptyList()
+                listOf<Any>(
+                        MethodInvokeSpec(
+                                InvokeType.INVOKE_STATIC,
+                                MethodTypeSpec(owner, metadataMethod.name, TypeSpec(Array<Any>::class.java))
+                        )
+                ) + params.map { it.name }
         )
         )
     }
@@ -31,20 +31,31 @@ import com.github.jonathanxd.kores.base.TypeDeclaration
 import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader
 import com.github.koresframework.eventsys.event.Event
 import com.github.koresframework.eventsys.gen.GeneratedEventClass
+import com.github.koresframework.eventsys.util.mh.Lookups
+import java.lang.ref.WeakReference
 import java.util.*
-import java.util.concurrent.CopyOnWriteArrayList
 
 /**
- * [ClassLoader] of all event generated classes
+ * [ClassLoader] of all event generated classes.
+ *
+ * Classes are defined with the first backend that is available in current runtime:
+ *
+ * - `Lookup.defineHiddenClass` (Java 15+), only when explicitly requested, for classes that are never resolved by name.
+ * - `Lookup.defineClass` (Java 9+), in the package and class loader of a host class.
+ * - Reflective `ClassLoader.defineClass` injection (Java 8, or when the host package is not open to EventSys).
+ * - A [CodeClassLoader] shared by all classes defined with the same parent class loader.
  */
 internal object EventGenClassLoader {
 
-    private val loadedClasses_ = CopyOnWriteArrayList<GeneratedEventClass<*>>()
-    val loadedClasses = Collections.unmodifiableList(loadedClasses_)
+    // Weakly held, so classes generated for unloaded listener classes could be unloaded too
+    private val loadedClasses_ = Collections.synchronizedMap(WeakHashMap<Class<*>, Boolean>())
+    val loadedClasses: List<Class<*>>
+        get() = synchronized(this.loadedClasses_) { this.loadedClasses_.keys.toList() }
+
+    private val codeClassLoaders = WeakHashMap<ClassLoader, WeakReference<CodeClassLoader>>()
 
     fun defineClass(decl: TypeDeclaration, byteArray: ByteArray, disassembled: Lazy<String>): GeneratedEventClass<*> {
-        val cl = Event::class.java.classLoader
-        return this.defineClass(decl, byteArray, disassembled, cl)
+        return this.defineClass(decl, byteArray, disassembled, EventGenClassLoader::class.java)
     }
 
     fun defineClass(decl: TypeDeclaration,
@@ -52,19 +63,58 @@ internal object EventGenClassLoader {
                     disassembled: Lazy<String>,
                     classLoader: ClassLoader): GeneratedEventClass<*> {
 
-        val definedClass = try {
-            this.inject(classLoader, decl.canonicalName, byteArray)
-        } catch (e: Exception) {
-            CodeClassLoader(classLoader).define(decl, byteArray)
-        }
+        val definedClass = this.defineInClassLoader(classLoader, decl, byteArray)
 
-        val sandstoneClass = GeneratedEventClass(definedClass, byteArray, disassembled)
+        return this.register(GeneratedEventClass(definedClass, byteArray, disassembled))
+    }
 
-        this.loadedClasses_ += sandstoneClass
+    /**
+     * Defines [decl] in the class loader of [host]. When [decl] is declared in the same package as [host],
+     * class is defined through a [lookup][java.lang.invoke.MethodHandles.Lookup] of [host] instead of injection.
+     *
+     * If [hidden] is `true` and runtime supports it, class is defined as a hidden class, which could not be
+     * resolved by name, thus only classes that are never referred by other generated classes should be hidden.
+     */
+    fun defineClass(decl: TypeDeclaration,
+                    byteArray: ByteArray,
+                    disassembled: Lazy<String>,
+                    host: Class<*>,
+                    hidden: Boolean = false): GeneratedEventClass<*> {
 
-        return sandstoneClass
+        val definedClass = (if (this.isSamePackage(decl, host)) {
+            (if (hidden) Lookups.defineHiddenClass(host, byteArray) else null)
+                    ?: Lookups.defineClass(host, byteArray)
+        } else null) ?: this.defineInClassLoader(host.classLoader ?: Event::class.java.classLoader, decl, byteArray)
+
+        return this.register(GeneratedEventClass(definedClass, byteArray, disassembled))
+    }
+
+    private fun register(generatedEventClass: GeneratedEventClass<*>): GeneratedEventClass<*> {
+        this.loadedClasses_[generatedEventClass.javaClass] = true
+
+        return generatedEventClass
     }
 
+    private fun isSamePackage(decl: TypeDeclaration, host: Class<*>): Boolean =
+            decl.canonicalName.substringBeforeLast('.', "") == host.name.substringBeforeLast('.', "")
+
+    private fun defineInClassLoader(classLoader: ClassLoader, decl: TypeDeclaration, bytes: ByteArray): Class<*> =
+            try {
+                this.inject(classLoader, decl.canonicalName, bytes)
+            } catch (e: Exception) {
+                try {
+                    this.codeClassLoader(classLoader).define(decl, bytes)
+                } catch (e: LinkageError) {
+                    CodeClassLoader(classLoader).define(decl, bytes)
+                }
+            }
+
+    private fun codeClassLoader(parent: ClassLoader): CodeClassLoader =
+            synchronized(this.codeClassLoaders) {
+                this.codeClassLoaders[parent]?.get()
+                        ?: CodeClassLoader(parent).also { this.codeClassLoaders[parent] = WeakReference(it) }
+            }
+
     private fun inject(classLoader: ClassLoader, name: String, bytes: ByteArray): Class<*> {
         val method = ClassLoader::class.java.getDeclaredMethod("defineClass",
                 String::class.java, ByteArray::class.java, Int::class.javaPrimitiveType, Int::class.javaPrimitiveType)
@@ -76,4 +126,4 @@ internal object EventGenClassLoader {
         }
     }
 
-}
\ No newline at end of file
+}
@@ -42,6 +42,7 @@ import com.github.koresframework.eventsys.logging.LoggerInterface
 import java.lang.reflect.Method
 import java.lang.reflect.Type
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 /**
  * Event generator manager.
@@ -65,6 +66,14 @@ interface EventGenerator {
      */
     val generationEnvironment: GenerationEnvironment
 
+    /**
+     * Executor of asynchronous generation, also used by registries to resolve listener classes
+     * of [bulk registrations][com.github.koresframework.eventsys.event.EventListenerRegistry.registerListeners].
+     * Runs tasks in the caller thread by default.
+     */
+    val executor: Executor
+        get() = Executor(Runnable::run)
+
     /**
      * Check handler
      */
@@ -427,6 +436,17 @@ interface EventGenerator {
             ctx: EnvironmentContext = EnvironmentContext()
     ): CompletableFuture<ResolvableDeclaration<EventListener<Event>>>
 
+    /**
+     * Releases all cached method listener classes generated for [listenerClass], as well as cached declarations
+     * of [listenerClass]. Listeners already created for [listenerClass] keeps working, and classes generated
+     * for them becomes collectable once those listeners are no longer reachable.
+     *
+     * This is called by [listener registries][com.github.koresframework.eventsys.event.EventListenerRegistry] when
+     * all listeners of an owner are unregistered, so classes of reloaded plugins does not leak.
+     */
+    fun releaseListenerClass(listenerClass: Type) {
+    }
+
     /**
      * Creates a [ListenerSpec] from [Kores method declaration][method].
      */
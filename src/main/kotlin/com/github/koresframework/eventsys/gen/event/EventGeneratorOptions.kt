@@ -64,4 +64,31 @@ object EventGeneratorOptions {
      */
     @JvmField
     val USE_METHOD_HANDLE_LISTENER = Option(false)
-}
\ No newline at end of file
+
+    /**
+     * Dispatch to listener method through functional interfaces implemented by [LambdaMetafactory][java.lang.invoke.LambdaMetafactory]
+     * instead of generating listener class. Registration is a lot faster than generating classes and
+     * invocation is almost as fast as generated listeners.
+     *
+     * Has no effect if [USE_METHOD_HANDLE_LISTENER] is enabled.
+     *
+     * @see com.github.koresframework.eventsys.util.mh.LambdaListener
+     */
+    @JvmField
+    val USE_LAMBDA_LISTENER = Option(false)
+
+    /**
+     * Looks up factory, event and listener classes generated at compile-time by the annotation processor before
+     * generating them at runtime. Event implementations are generated at compile-time for events created by
+     * compile-time factories, and are only found when the extensions match.
+     *
+     * Disabled by default: compile-time factories are generated without the extensions and event implementations
+     * registered at runtime (through [EventGenerator.registerExtension] and [EventGenerator.registerEventImplementation]),
+     * and are not affected by their invalidation, so this should only be enabled when none is registered.
+     *
+     * @see com.github.koresframework.eventsys.ap.GenListener
+     * @see com.github.koresframework.eventsys.ap.FactorySettings.compileTimeGenerator
+     */
+    @JvmField
+    val USE_GENERATED_INDEX = Option(false)
+}
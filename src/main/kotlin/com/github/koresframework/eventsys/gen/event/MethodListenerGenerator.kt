@@ -39,6 +39,7 @@ import com.github.jonathanxd.kores.factory.*
 import com.github.jonathanxd.kores.literal.Literals
 import com.github.jonathanxd.kores.type.*
 import com.github.koresframework.eventsys.Debug
+import com.github.koresframework.eventsys.context.EnvironmentContext
 import com.github.koresframework.eventsys.error.ListenError
 import com.github.koresframework.eventsys.error.PropertyNotFoundError
 import com.github.koresframework.eventsys.event.Event
@@ -51,10 +52,13 @@ import com.github.koresframework.eventsys.event.property.Property
 import com.github.koresframework.eventsys.event.property.PropertyHolder
 import com.github.koresframework.eventsys.gen.GeneratedEventClass
 import com.github.koresframework.eventsys.gen.ResolvableDeclaration
+import com.github.koresframework.eventsys.gen.save.ClassCache
 import com.github.koresframework.eventsys.gen.save.ClassSaver
+import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.reflect.getName
 import com.github.koresframework.eventsys.result.ListenResult
 import com.github.koresframework.eventsys.util.*
+import java.lang.reflect.Method
 import java.lang.reflect.Type
 
 /**
@@ -88,14 +92,43 @@ internal object MethodListenerGenerator {
         }
     }
 
+    /**
+     * Resolves the listener class of [declaration] and its constructor once, and returns a function which
+     * instantiates the listener for instances of [instanceClass] (`null` for static methods).
+     */
+    fun instantiator(
+            declaration: ResolvableDeclaration<Class<out EventListener<Event>>>,
+            method: MethodDeclaration,
+            instanceClass: Class<*>
+    ): (Any?) -> EventListener<Event> {
+        val klass = declaration.resolve()
+
+        if (method.modifiers.contains(KoresModifier.STATIC)) {
+            val constructor = klass.getConstructor()
+            return { constructor.newInstance() }
+        }
+
+        try {
+            klass.classLoader.loadClass(instanceClass.binaryName)
+        } catch (e: ClassNotFoundException) {
+            throw IllegalStateException("Cannot lookup for Listener class: '$instanceClass' from class loader: '${klass.classLoader}'")
+        }
+
+        val constructor = klass.getConstructor(instanceClass)
+
+        return { constructor.newInstance(it) }
+    }
+
     fun create(
             owner: Any,
             method: MethodDeclaration,
             instance: Any?,
-            listenerSpec: ListenerSpec
+            listenerSpec: ListenerSpec,
+            logger: LoggerInterface,
+            ctx: EnvironmentContext
     ): ResolvableDeclaration<EventListener<Event>> {
 
-        val declaration = this.createClass(owner::class.java, method, listenerSpec)
+        val declaration = this.createClass(owner::class.java, method, listenerSpec, logger, ctx)
 
         return ResolvableDeclaration(declaration.classDeclaration) {
             val klass = declaration.resolve()
@@ -121,33 +154,40 @@ internal object MethodListenerGenerator {
     fun createClass(
             targetType: Type,
             method: MethodDeclaration,
-            listenerSpec: ListenerSpec
+            listenerSpec: ListenerSpec,
+            logger: LoggerInterface,
+            ctx: EnvironmentContext
     ): ResolvableDeclaration<Class<out EventListener<Event>>> {
         val codeClass = createClassDeclaration(targetType, method, listenerSpec)
 
-        return ResolvableDeclaration(codeClass) {
-            val generator = BytecodeGenerator()
+        // Listener class is generated once, even if resolved concurrently
+        return ResolvableDeclaration(codeClass, lazy {
+            val (bytes, disassembled) = ClassCache.getOrGenerate(codeClass, logger, ctx, targetType, method, listenerSpec) {
+                val generator = BytecodeGenerator()
 
-            generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
+                generator.options.set(VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION)
 
-            val bytecodeClass = generator.process(codeClass)[0]
+                val bytecodeClass = generator.process(codeClass)[0]
 
-            val bytes = bytecodeClass.bytecode
+                bytecodeClass.bytecode to lazy { bytecodeClass.disassembledCode }
+            }
 
             val klass = targetType.concreteType.bindedDefaultResolver.resolve().rightOrNull()
 
+            // Generated listeners are only instantiated reflectively, so they could be hidden classes.
             val definedClass = if (klass is Class<*>) {
                 EventGenClassLoader.defineClass(
                         codeClass,
                         bytes,
-                        lazy { bytecodeClass.disassembledCode },
-                        klass.classLoader
+                        disassembled,
+                        klass,
+                        hidden = true
                 ) as GeneratedEventClass<EventListener<Event>>
             } else {
                 EventGenClassLoader.defineClass(
                         codeClass,
                         bytes,
-                        lazy { bytecodeClass.disassembledCode }
+                        disassembled
                 ) as GeneratedEventClass<EventListener<Event>>
             }
 
@@ -156,16 +196,31 @@ internal object MethodListenerGenerator {
             }
 
             definedClass.javaClass
-        }
+        })
     }
 
+    /**
+     * Creates the declaration of listener class of [method] of [targetType].
+     *
+     * @param packageName Package of [targetType], when `null`, the package is resolved from [targetType] class,
+     * which is not loaded at compile time.
+     */
     @Suppress("UNCHECKED_CAST")
-    private fun createClassDeclaration(
+    internal fun createClassDeclaration(
             targetType: Type,
             method: MethodDeclaration,
-            listenerSpec: ListenerSpec
+            listenerSpec: ListenerSpec,
+            packageName: String? = null
     ): ClassDeclaration {
-        val baseCanonicalName = "${EventListener::class.java.`package`.name}.generated."
+        val targetPackage = packageName ?: targetType.concreteType.bindedDefaultResolver.resolve().rightOrNull()
+                .let { if (it is Class<*>) it.name.substringBeforeLast('.', "") else null }
+
+        // Listener classes are declared in the package of the target, so they could be defined through its lookup.
+        val baseCanonicalName = when {
+            targetPackage == null -> "${EventListener::class.java.`package`.name}.generated."
+            targetPackage.isEmpty() -> ""
+            else -> "$targetPackage."
+        }
         val declaringName = targetType.canonicalName.replace('.', '_')
 
         val name = getName("${baseCanonicalName}_${declaringName}_${method.name}", nameCaching)
@@ -264,17 +319,33 @@ internal object MethodListenerGenerator {
                                 )
                         )
                     } else {
-                        body.addAll(
-                                this.callGetPropertyDirectOn(
-                                        accessEventVar,
-                                        name,
-                                        typeInfo,
-                                        false,
-                                        param.isOptional,
-                                        param.optType,
-                                        param.shouldLookup
-                                )
-                        )
+                        val getter =
+                                if (!param.shouldLookup) findPropertyGetter(listenerSpec.eventType, name, typeInfo)
+                                else null
+
+                        if (getter != null) {
+                            body.addAll(
+                                    this.callGetterDirectOn(
+                                            accessEventVar,
+                                            getter,
+                                            name,
+                                            typeInfo,
+                                            param.optType
+                                    )
+                            )
+                        } else {
+                            body.addAll(
+                                    this.callGetPropertyDirectOn(
+                                            accessEventVar,
+                                            name,
+                                            typeInfo,
+                                            false,
+                                            param.isOptional,
+                                            param.optType,
+                                            param.shouldLookup
+                                    )
+                            )
+                        }
                     }
 
                     // toAdd/*cast(Types.OBJECT, param.type.typeClass, toAdd)*/
@@ -301,14 +372,12 @@ internal object MethodListenerGenerator {
                     arguments = arguments
             )
 
-            val returnValue = if (!isListenResult) {
-                val valueArgument: Instruction =
-                        if (isVoid) accessStaticField(typeOf<Unit>(), typeOf<Unit>(), "INSTANCE")
-                        else invoke
-
+            val returnValue = if (isVoid) {
+                accessStaticField(typeOf<ListenResult.Value>(), typeOf<ListenResult.Value>(), "UNIT")
+            } else if (!isListenResult) {
                 typeOf<ListenResult.Value>().invokeConstructor(
                         constructorTypeSpec(Types.OBJECT),
-                        listOf(valueArgument)
+                        listOf(invoke)
                 )
             } else {
                 invoke
@@ -427,6 +496,31 @@ internal object MethodListenerGenerator {
 
     private fun getPropertyAccessName(name: String) = "prop\$$name"
 
+    /**
+     * Calls the [getter] directly on event instead of looking up the property in
+     * [property holder][PropertyHolder], primitive values are not boxed.
+     */
+    private fun callGetterDirectOn(
+            target: Instruction,
+            getter: Method,
+            name: String,
+            type: Type,
+            optType: Type?
+    ): Instructions {
+        val getterType = getter.declaringClass
+
+        val value = invoke(
+                invokeType = InvokeType.get(getterType),
+                localization = getterType,
+                target = cast(Event::class.java, getterType, target),
+                name = getter.name,
+                spec = typeSpec(getter.returnType),
+                arguments = emptyList()
+        )
+
+        return source(variable(type, getPropertyAccessName(name), optType?.createSome(value) ?: value))
+    }
+
     private fun callGetPropertyDirectOn(
             target: Instruction,
             name: String,
@@ -0,0 +1,274 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.gen.save
+
+import com.github.jonathanxd.kores.base.EnumValue
+import com.github.jonathanxd.kores.base.KoresAnnotation
+import com.github.jonathanxd.kores.base.MethodDeclaration
+import com.github.jonathanxd.kores.base.TypeDeclaration
+import com.github.jonathanxd.kores.type.*
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.ListenerSpec
+import com.github.koresframework.eventsys.extension.ExtensionSpecification
+import com.github.koresframework.eventsys.gen.event.EventClassSpecification
+import com.github.koresframework.eventsys.gen.event.PropertyInfo
+import com.github.koresframework.eventsys.logging.LoggerInterface
+import com.github.koresframework.eventsys.logging.MessageType
+import java.lang.reflect.Type
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+
+/**
+ * Persistent cache of generated class bytes, enabled by setting `eventsys.generation.cache` system property
+ * to a directory.
+ *
+ * Generated classes are stored as plain class files under `classes` (`classes/com/example/MyEventImpl.class`),
+ * so the directory is a regular class tree which could be packaged in a jar or used as an AppCDS class path.
+ * Each class has a key file under `keys` (`keys/com/example/MyEventImpl.key`) holding the entry key and
+ * the SHA-256 of the class file, both files are written to a temporary file and atomically moved.
+ * A class file is only loaded if the key matches and the class file matches the hash stored with the key,
+ * so a concurrent reader never loads bytes of other entry.
+ *
+ * The key is a hash of EventSys version, generated class name and the fields of the specification
+ * which the class was generated from (such as [EventClassSpecification] or [ListenerSpec]). Types are hashed
+ * with the class files of the type and its super types, so changing an event, factory or listener class
+ * simply misses the cache. Classes without a specification, or with one which could not be hashed, are not cached.
+ *
+ * Failures to read or write entries are logged with [MessageType.GENERATION_CACHE_FAILURE] and fallback
+ * to generation.
+ */
+internal object ClassCache {
+
+    private const val CACHE_PATH = "eventsys.generation.cache"
+    private const val CLASSES = "classes"
+    private const val KEYS = "keys"
+
+    private val version: String =
+            ClassCache::class.java.`package`?.implementationVersion ?: "development"
+
+    private val directory: Path? =
+            System.getProperties()[CACHE_PATH]?.toString()?.let { Paths.get(it).resolve(version) }
+
+    private val classHashes = object : ClassValue<String>() {
+        override fun computeValue(type: Class<*>): String = hashClass(type)
+    }
+
+    /**
+     * Whether generated class cache is enabled.
+     */
+    val isEnabled: Boolean
+        get() = this.directory != null
+
+    /**
+     * Loads bytes of [declaration] from the cache, or generates and caches them with [generate].
+     *
+     * [specs] are the specifications which [declaration] was generated from. [generate] returns bytes and
+     * disassembled code of [declaration], disassembled code is not available for classes loaded from the cache.
+     * Cache failures are reported to [logger].
+     */
+    fun getOrGenerate(declaration: TypeDeclaration,
+                      logger: LoggerInterface,
+                      ctx: EnvironmentContext,
+                      vararg specs: Any?,
+                      generate: () -> Pair<ByteArray, Lazy<String>>): Pair<ByteArray, Lazy<String>> {
+        if (!this.isEnabled)
+            return generate()
+
+        val key = this.key(declaration, specs) ?: return generate()
+
+        this.load(declaration, key, logger, ctx)?.let {
+            return it to lazy { "// ${declaration.canonicalName} loaded from generated class cache." }
+        }
+
+        return generate().also { (bytes, _) ->
+            this.store(declaration, key, bytes, logger, ctx)
+        }
+    }
+
+    private fun key(declaration: TypeDeclaration, specs: Array<out Any?>): String? {
+        val digest = MessageDigest.getInstance("SHA-256")
+
+        digest.update(this.version)
+        digest.update(declaration.canonicalName)
+
+        // Without a specification the key would only identify the class name.
+        if (specs.any { it == null } || !specs.all { digest.updateSpec(it) })
+            return null
+
+        return digest.digest().toHex()
+    }
+
+    /**
+     * Updates this digest with the fields of [value], returns false if [value] could not be hashed.
+     */
+    private fun MessageDigest.updateSpec(value: Any?): Boolean {
+        val text = when (value) {
+            null -> "null"
+            is String, is Boolean, is Number, is Char -> value.toString()
+            is Enum<*> -> "${value.javaClass.name}.${value.name}"
+            is Type -> hashType(value)
+            is EnumValue -> "${value.type.identification}.${value.enumEntry}"
+            else -> null
+        }
+
+        if (text != null) {
+            this.update(text)
+            return true
+        }
+
+        return this.updateStructure(value)
+    }
+
+    private fun MessageDigest.updateStructure(value: Any?): Boolean = when (value) {
+        is KoresAnnotation -> this.updateSpec(value.type) && this.updateSpec(value.values.toSortedMap())
+        is Map<*, *> -> value.entries.all { this.updateSpec(it.key) && this.updateSpec(it.value) }
+        is Iterable<*> -> {
+            this.update("[")
+            value.all { this.updateSpec(it) }.also { this.update("]") }
+        }
+        is Array<*> -> this.updateSpec(value.asList())
+        is ListenerSpec -> this.updateSpec(listOf(value.eventType, value.firstIsEvent, value.ignoreCancelled,
+                value.priority, value.parameters, value.channel, value.cancelAffected))
+        is ListenerSpec.LParameter -> this.updateSpec(listOf(value.name, value.annotations, value.type,
+                value.isOptional, value.optType, value.shouldLookup))
+        is EventClassSpecification -> this.updateSpec(listOf(value.type, value.additionalProperties,
+                value.extensions))
+        is PropertyInfo -> this.updateSpec(listOf(value.declaringType, value.propertyName, value.getterName,
+                value.setterName, value.type, value.isNotNull, value.validator, value.propertyType.type,
+                value.propertyType.definedParams.types.toList(), value.inferredType))
+        is ExtensionSpecification -> this.updateSpec(listOf(value.implement, value.extensionClass))
+        is MethodDeclaration -> this.updateSpec(listOf(value.name, value.modifiers.map { it.name }.sorted(),
+                value.returnType, value.parameters.map { it.type }))
+        else -> false
+    }
+
+    private fun MessageDigest.update(value: String) {
+        this.update(value.toByteArray(StandardCharsets.UTF_8))
+        this.update(0)
+    }
+
+    private fun hashType(type: Type): String {
+        val resolved = type.concreteType.bindedDefaultResolver.resolve().rightOrNull()
+
+        return if (resolved is Class<*>)
+            "${type.identification}#${this.classHashes.get(resolved)}"
+        else
+            type.identification
+    }
+
+    /**
+     * Hashes the class file of [type] and of its super types, bootstrap classes are hashed by name only.
+     */
+    private fun hashClass(type: Class<*>): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+
+        digest.update(type.name)
+
+        val classLoader = type.classLoader
+
+        if (classLoader != null && !type.isArray) {
+            classLoader.getResourceAsStream("${type.name.replace('.', '/')}.class")
+                    ?.use { digest.update(it.readBytes()) }
+
+            type.superclass?.let { digest.update(this.classHashes.get(it)) }
+            type.interfaces.forEach { digest.update(this.classHashes.get(it)) }
+        }
+
+        return digest.digest().toHex()
+    }
+
+    private fun load(declaration: TypeDeclaration, key: String, logger: LoggerInterface, ctx: EnvironmentContext): ByteArray? {
+        val directory = this.directory ?: return null
+        val classPath = this.classPath(directory, declaration)
+
+        return try {
+            val entryKey = String(Files.readAllBytes(this.keyPath(directory, declaration)), StandardCharsets.UTF_8)
+                    .lines()
+
+            if (entryKey.size < 2 || entryKey[0] != key)
+                return null
+
+            val bytes = Files.readAllBytes(classPath)
+
+            if (MessageDigest.getInstance("SHA-256").digest(bytes).toHex() == entryKey[1])
+                bytes
+            else
+                null
+        } catch (e: NoSuchFileException) {
+            null
+        } catch (e: Exception) {
+            logger.log("Failed to load '${declaration.canonicalName}' from generated class cache '$classPath'.",
+                    MessageType.GENERATION_CACHE_FAILURE, e, ctx)
+            null
+        }
+    }
+
+    private fun store(declaration: TypeDeclaration, key: String, bytes: ByteArray, logger: LoggerInterface, ctx: EnvironmentContext) {
+        val directory = this.directory ?: return
+        val classPath = this.classPath(directory, declaration)
+
+        // Cache is best effort, another JVM could be writing the same entry. A class file paired with the key
+        // of other entry does not match the hash stored with the key, so it is never loaded.
+        try {
+            val entryKey = "$key\n${MessageDigest.getInstance("SHA-256").digest(bytes).toHex()}"
+
+            this.write(classPath, bytes)
+            this.write(this.keyPath(directory, declaration), entryKey.toByteArray(StandardCharsets.UTF_8))
+        } catch (e: Exception) {
+            logger.log("Failed to store '${declaration.canonicalName}' in generated class cache '$classPath'.",
+                    MessageType.GENERATION_CACHE_FAILURE, e, ctx)
+        }
+    }
+
+    private fun write(path: Path, bytes: ByteArray) {
+        Files.createDirectories(path.parent)
+
+        val temp = Files.createTempFile(path.parent, path.fileName.toString(), ".tmp")
+
+        try {
+            Files.write(temp, bytes)
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        } finally {
+            Files.deleteIfExists(temp)
+        }
+    }
+
+    private fun classPath(directory: Path, declaration: TypeDeclaration): Path =
+            directory.resolve(CLASSES).resolve("${declaration.binaryName.replace('.', '/')}.class")
+
+    private fun keyPath(directory: Path, declaration: TypeDeclaration): Path =
+            directory.resolve(KEYS).resolve("${declaration.binaryName.replace('.', '/')}.key")
+
+    private fun ByteArray.toHex(): String =
+            this.joinToString(separator = "") { String.format("%02x", it) }
+}
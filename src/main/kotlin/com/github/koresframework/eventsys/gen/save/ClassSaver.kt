@@ -44,7 +44,9 @@ internal object ClassSaver {
      */
     fun save(directory: Path, generatedEventClass: GeneratedEventClass<*>) {
 
+        // Hidden classes have no canonical name, and their name is suffixed with '/<address>'
         val className: String = generatedEventClass.javaClass.canonicalName
+                ?: generatedEventClass.javaClass.name.substringBefore('/')
         val classBytes: ByteArray = generatedEventClass.bytes
         val source: String = generatedEventClass.disassembled.value
 
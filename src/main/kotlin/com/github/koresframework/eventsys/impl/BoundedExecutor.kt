@@ -0,0 +1,150 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.impl
+
+import com.github.koresframework.eventsys.util.OverloadPolicy
+import com.github.koresframework.eventsys.util.OverloadRejectedExecutionException
+import com.github.koresframework.eventsys.util.RejectableTask
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.RejectedExecutionHandler
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Executor with a fixed amount of [threads] and a queue bounded to [capacity] tasks. When the queue is full,
+ * the overload [policy] is applied.
+ *
+ * [OverloadPolicy.DROP_OLDEST] and [OverloadPolicy.DROP_NEWEST] are only able to drop [RejectableTasks][RejectableTask],
+ * other tasks (such as generation tasks) are never dropped. [OverloadPolicy.DROP_OLDEST] drops the oldest queued
+ * rejectable task, skipping other tasks, and [OverloadPolicy.DROP_NEWEST] drops the new task if it is rejectable.
+ * When no task could be dropped, the submission fails, like [OverloadPolicy.FAIL]. Submissions which fail because
+ * of the [policy] throw [OverloadRejectedExecutionException]. Dispatches of EventSys dispatchers are rejectable.
+ *
+ * @param threads Amount of worker threads.
+ * @param capacity Max amount of queued tasks.
+ * @param policy Policy applied when the queue is full.
+ * @param threadFactory Factory of worker threads.
+ */
+class BoundedExecutor @JvmOverloads constructor(
+        val threads: Int,
+        val capacity: Int,
+        val policy: OverloadPolicy,
+        threadFactory: ThreadFactory = Executors.defaultThreadFactory()
+) : Executor {
+
+    private val overloaded = AtomicLong()
+    private val rejected = AtomicLong()
+
+    private val executor = ThreadPoolExecutor(
+            this.threads,
+            this.threads,
+            60L,
+            TimeUnit.SECONDS,
+            ArrayBlockingQueue(this.capacity),
+            threadFactory,
+            RejectedExecutionHandler { task, executor -> this.overload(task, executor) }
+    ).apply {
+        this.allowCoreThreadTimeOut(true)
+    }
+
+    /**
+     * Amount of tasks waiting in the queue.
+     */
+    val queueDepth: Int
+        get() = this.executor.queue.size
+
+    /**
+     * Amount of times the [policy] was applied because the queue was full.
+     */
+    val overloadCount: Long
+        get() = this.overloaded.get()
+
+    /**
+     * Amount of tasks which were not run because of the [policy], rejected tasks and failed submissions.
+     */
+    val rejectedCount: Long
+        get() = this.rejected.get()
+
+    override fun execute(command: Runnable) {
+        this.executor.execute(command)
+    }
+
+    /**
+     * Stops accepting tasks, already queued tasks are still run.
+     */
+    fun shutdown() {
+        this.executor.shutdown()
+    }
+
+    private fun overload(task: Runnable, executor: ThreadPoolExecutor) {
+        if (executor.isShutdown)
+            throw RejectedExecutionException("Executor is shutdown.")
+
+        this.overloaded.incrementAndGet()
+
+        when (this.policy) {
+            OverloadPolicy.BLOCK -> {
+                executor.queue.put(task)
+
+                // Shutdown while waiting for space, the task may be never run if workers already finished
+                if (executor.isShutdown && executor.queue.remove(task))
+                    throw RejectedExecutionException("Executor is shutdown.")
+            }
+            OverloadPolicy.CALLER_RUNS -> task.run()
+            OverloadPolicy.DROP_OLDEST -> {
+                val oldest = executor.queue.firstOrNull { it is RejectableTask } as RejectableTask?
+
+                if (oldest != null && executor.queue.remove(oldest)) {
+                    this.rejected.incrementAndGet()
+                    oldest.reject(this.policy)
+                    executor.execute(task)
+                } else {
+                    this.fail(task)
+                }
+            }
+            OverloadPolicy.DROP_NEWEST ->
+                if (task is RejectableTask) {
+                    this.rejected.incrementAndGet()
+                    task.reject(this.policy)
+                } else {
+                    this.fail(task)
+                }
+            OverloadPolicy.FAIL -> this.fail(task)
+        }
+    }
+
+    private fun fail(task: Runnable): Nothing {
+        this.rejected.incrementAndGet()
+        throw OverloadRejectedExecutionException("Task $task rejected, queue is full.", this.policy)
+    }
+}
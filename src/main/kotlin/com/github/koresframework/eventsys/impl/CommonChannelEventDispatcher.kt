@@ -33,6 +33,7 @@ import com.github.koresframework.eventsys.event.ChannelEventDispatcher
 import com.github.koresframework.eventsys.event.ChannelEventListenerRegistry
 import com.github.koresframework.eventsys.event.Event
 import com.github.koresframework.eventsys.event.EventDispatcher
+import com.github.koresframework.eventsys.event.ObservableEventListenerRegistry
 import com.github.koresframework.eventsys.gen.event.EventGenerator
 import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.result.DispatchResult
@@ -41,11 +42,21 @@ import java.util.concurrent.Executor
 
 /**
  * Common implementation of [ChannelEventDispatcher] backed to a [normal dispatcher][backendDispatcher].
+ *
+ * @param cacheDispatchPlan Whether listeners of each event type and channel should be cached in a [DispatchPlanCache].
+ * Only takes effect if [channelEventListenerRegistry] is an [ObservableEventListenerRegistry].
  */
-class CommonChannelEventDispatcher(override val eventGenerator: EventGenerator,
-                                   override val executor: Executor,
-                                   override val logger: LoggerInterface,
-                                   private val channelEventListenerRegistry: ChannelEventListenerRegistry) : AbstractEventDispatcher(), ChannelEventDispatcher {
+class CommonChannelEventDispatcher @JvmOverloads constructor(
+        override val eventGenerator: EventGenerator,
+        override val executor: Executor,
+        override val logger: LoggerInterface,
+        private val channelEventListenerRegistry: ChannelEventListenerRegistry,
+        cacheDispatchPlan: Boolean = false
+) : AbstractEventDispatcher(), ChannelEventDispatcher {
+
+    override val dispatchPlanCache: DispatchPlanCache? =
+            if (cacheDispatchPlan) DispatchPlanCache.observing(this.channelEventListenerRegistry, this::check)
+            else null
 
     override val channels: ChannelSet
         get() = this.channelEventListenerRegistry.channels
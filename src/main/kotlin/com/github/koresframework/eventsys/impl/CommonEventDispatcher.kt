@@ -32,6 +32,7 @@ import com.github.jonathanxd.kores.type.asGeneric
 import com.github.jonathanxd.kores.type.isAssignableFrom
 import com.github.koresframework.eventsys.channel.ChannelSet
 import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.error.DispatchRejectedError
 import com.github.koresframework.eventsys.error.EventCancelledError
 import com.github.koresframework.eventsys.error.ExceptionListenError
 import com.github.koresframework.eventsys.event.*
@@ -39,33 +40,64 @@ import com.github.koresframework.eventsys.event.EventListener
 import com.github.koresframework.eventsys.gen.event.EventGenerator
 import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.logging.MessageType
+import com.github.koresframework.eventsys.metrics.DispatchMetrics
+import com.github.koresframework.eventsys.metrics.NoOpDispatchMetrics
 import com.github.koresframework.eventsys.result.DispatchResult
 import com.github.koresframework.eventsys.result.ListenExecutionResult
 import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.OverloadPolicy
+import com.github.koresframework.eventsys.util.OverloadRejectedExecutionException
+import com.github.koresframework.eventsys.util.RejectableTask
 import com.github.koresframework.eventsys.util.isGenericAssignableFrom
 import java.lang.reflect.Type
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.Executor
-import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.ThreadFactory
-import java.util.function.Supplier
 import kotlin.Comparator
 
 /**
  * Common Event dispatcher implementation
  *
- * @param threadFactory Thread factory for async dispatch
+ * Asynchronous dispatches call each listener in a different task of the [executorStrategy] executor, so cancellation
+ * of [Cancellable] events is not applied to them, unless an [orderedExecutor] is provided, which calls listeners
+ * sequentially, with same [Cancellable] semantics of synchronous dispatch.
+ * [Ordered asynchronous dispatches][dispatchOrderedAsync] always apply cancellation.
+ *
+ * @param threadFactory Thread factory of [executorStrategy] executor.
  * @param logger Logger interface for error logging.
  * @param eventGenerator Event generator instance to generate listener methods.
+ * @param cacheDispatchPlan Whether listeners of each event type and channel should be cached in a [DispatchPlanCache].
+ * Only takes effect if [eventListenerRegistry] is an [ObservableEventListenerRegistry].
+ * @param orderedExecutor Executor of keyed ordered asynchronous dispatches, when `null`, asynchronous dispatches
+ * calls each listener in a different task.
+ * @param orderingKeyExtractor Extractor of ordering key of asynchronous dispatches, only used with [orderedExecutor].
+ * @param executorStrategy Strategy which creates the executor of asynchronous dispatches, such as
+ * [virtual threads][ExecutorStrategy.VIRTUAL_THREADS] or [bounded][ExecutorStrategy.bounded] executors.
+ * @param metrics Metrics which dispatches are reported to, disabled by default.
  */
-open class CommonEventDispatcher(
+open class CommonEventDispatcher @JvmOverloads constructor(
         threadFactory: ThreadFactory,
         override val eventGenerator: EventGenerator,
         override val logger: LoggerInterface,
-        val eventListenerRegistry: EventListenerRegistry
+        val eventListenerRegistry: EventListenerRegistry,
+        cacheDispatchPlan: Boolean = false,
+        override val orderedExecutor: KeyedOrderedExecutor? = null,
+        override val orderingKeyExtractor: OrderingKeyExtractor = OrderingKeyExtractor.CHANNEL,
+        executorStrategy: ExecutorStrategy = ExecutorStrategy.CACHED,
+        override val metrics: DispatchMetrics = NoOpDispatchMetrics
 ) : AbstractEventDispatcher() {
 
-    override val executor = Executors.newCachedThreadPool(threadFactory)
+    override val executor: Executor = executorStrategy.createExecutor(threadFactory)
+
+    override val dispatchPlanCache: DispatchPlanCache? =
+            if (cacheDispatchPlan) DispatchPlanCache.observing(this.eventListenerRegistry, this::check)
+            else null
+
+    init {
+        this.observeRegistry(this.eventListenerRegistry)
+    }
 
     override fun <T : Event> getListeners(event: T, eventType: Type, channel: String): Iterable<EventListenerContainer<*>> {
         return this.eventListenerRegistry.getListenersContainers<T>(event, eventType, channel);
@@ -75,9 +107,51 @@ open class CommonEventDispatcher(
 abstract class AbstractEventDispatcher : EventDispatcher {
 
     protected abstract val logger: LoggerInterface
+
+    /**
+     * Executor of asynchronous dispatches, implementations should create it through an [ExecutorStrategy]
+     * provided by the user.
+     */
     protected abstract val executor: Executor
     protected abstract val eventGenerator: EventGenerator
 
+    /**
+     * Cache of [dispatch plans][DispatchPlan], when `null`, listeners are resolved and filtered in every dispatch.
+     */
+    protected open val dispatchPlanCache: DispatchPlanCache?
+        get() = null
+
+    /**
+     * Executor of keyed ordered asynchronous dispatches. When not `null`, asynchronous dispatches call
+     * all listeners sequentially in the stripe of the dispatch [ordering key][orderingKey], instead of calling
+     * each listener in a different task of [executor]. Dispatches with the same key are run in dispatch order.
+     */
+    protected open val orderedExecutor: KeyedOrderedExecutor?
+        get() = null
+
+    /**
+     * Extractor of ordering key of asynchronous dispatches, only used with [orderedExecutor].
+     */
+    protected open val orderingKeyExtractor: OrderingKeyExtractor
+        get() = OrderingKeyExtractor.CHANNEL
+
+    /**
+     * Metrics which dispatches are reported to. Listeners are only timed when metrics are [enabled][DispatchMetrics.isEnabled].
+     */
+    protected open val metrics: DispatchMetrics
+        get() = NoOpDispatchMetrics
+
+    /**
+     * Adds [metrics] as observer of [registry] if both are observable, so metrics of unregistered
+     * listeners are discarded. Must be called by implementations after [metrics] is initialized.
+     */
+    protected fun observeRegistry(registry: EventListenerRegistry) {
+        val metrics = this.metrics
+
+        if (metrics is EventListenerRegistryObserver && registry is ObservableEventListenerRegistry)
+            registry.addObserver(metrics)
+    }
+
     protected abstract fun <T : Event> getListeners(
             event: T,
             eventType: Type,
@@ -93,46 +167,282 @@ abstract class AbstractEventDispatcher : EventDispatcher {
             ctx: EnvironmentContext
     ): DispatchResult<T> {
 
-        val lazyCancelled = lazy { (event as Cancellable).isCancelled }
-        val eventIsCancelled =
-                if (event is Cancellable) ({ lazyCancelled.value })
-                else ({ false })
-
-        fun tryDispatch(eventListenerContainer: EventListenerContainer<*>): CompletableFuture<ListenExecutionResult<T>> =
-                if (isAsync) {
-                    CompletableFuture.supplyAsync(Supplier {
-                        dispatchDirect(eventListenerContainer, event, eventType, dispatcher, channel, ctx)
-                    }, this.executor)
-                } else if (eventListenerContainer.eventListener.cancelAffected && eventIsCancelled()) {
-                    CompletableFuture.completedFuture(ListenExecutionResult(
-                            eventListenerContainer,
-                            event,
-                            eventType,
-                            dispatcher,
-                            channel,
-                            ListenResult.Failed(EventCancelledError()),
-                            ctx
-                    ))
-                } else {
-                    CompletableFuture.completedFuture(dispatchDirect(
-                            eventListenerContainer,
-                            event,
-                            eventType,
-                            dispatcher,
-                            channel,
-                            ctx
-                    ))
+        if (!isAsync)
+            return DispatchResult(this.dispatchOrdered(event, eventType, dispatcher, channel, ctx).map {
+                CompletableFuture.completedFuture(it)
+            })
+
+        val orderedExecutor = this.orderedExecutor
+
+        if (orderedExecutor != null)
+            return this.dispatchKeyed(orderedExecutor, event, eventType, dispatcher, channel, ctx)
+
+        val listeners = this.getDispatchPlan(event, eventType, channel).listeners
+        val dispatches = ArrayList<CompletableFuture<ListenExecutionResult<T>>>(listeners.size)
+        var rejected: RejectedExecutionException? = null
+
+        for (container in listeners) {
+            val task = ListenerTask(container, event, eventType, dispatcher, channel, ctx)
+            dispatches += task
+
+            if (rejected == null) {
+                try {
+                    this.executor.execute(task)
+                    continue
+                } catch (e: RejectedExecutionException) {
+                    rejected = e
                 }
+            }
 
-        val dispatches = this.getListeners(event, eventType, channel).filter {
-            this.check(container = it, eventType = eventType, channel = channel)
-        }.map {
-            tryDispatch(it)
+            // Failed submission rejects all remaining listeners of the dispatch
+            task.rejectBy((rejected as? OverloadRejectedExecutionException)?.policy)
         }
 
         return DispatchResult(dispatches)
     }
 
+    override fun <T : Event> dispatchOrderedAsync(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ): CompletableFuture<List<ListenExecutionResult<T>>> {
+        val task = OrderedTask(event, eventType, dispatcher, channel, ctx)
+        val orderedExecutor = this.orderedExecutor
+
+        // Rejected like dispatch, the future is completed with rejected results instead of failing the call
+        try {
+            if (orderedExecutor != null)
+                orderedExecutor.execute(this.orderingKey(event, eventType, dispatcher, channel, ctx), task)
+            else
+                this.executor.execute(task)
+        } catch (e: RejectedExecutionException) {
+            task.rejectBy((e as? OverloadRejectedExecutionException)?.policy)
+        }
+
+        return task
+    }
+
+    /**
+     * Gets the ordering key of a dispatch, provided through [OrderingKeyExtractor.ORDERING_KEY] in [ctx]
+     * or extracted by [orderingKeyExtractor].
+     */
+    protected fun <T : Event> orderingKey(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ): Any? =
+            OrderingKeyExtractor.ORDERING_KEY.getOrNull(ctx.data)
+                    ?: this.orderingKeyExtractor.getKey(event, eventType, dispatcher, channel)
+
+    /**
+     * Dispatches [event] to listeners sequentially in the [orderedExecutor] stripe of dispatch ordering key.
+     * Listeners are resolved in current thread, so each listener has its own result future.
+     */
+    private fun <T : Event> dispatchKeyed(
+            orderedExecutor: KeyedOrderedExecutor,
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ): DispatchResult<T> {
+        val plan = this.getDispatchPlan(event, eventType, channel)
+        val results = List(plan.size) { CompletableFuture<ListenExecutionResult<T>>() }
+        val queuedAt = this.queuedAt()
+
+        orderedExecutor.execute(this.orderingKey(event, eventType, dispatcher, channel, ctx), Runnable {
+            try {
+                val queueNanos = this.queueNanos(queuedAt)
+
+                this.dispatchOrdered(plan, event, eventType, dispatcher, channel, ctx, queueNanos).forEachIndexed { i, result ->
+                    results[i].complete(result)
+                }
+            } catch (throwable: Throwable) {
+                results.forEach { it.completeExceptionally(throwable) }
+            }
+        })
+
+        return DispatchResult(results)
+    }
+
+    /**
+     * Dispatches [event] to listeners sequentially, in current thread and in order of [dispatch plan][getDispatchPlan].
+     *
+     * [Cancel affected][EventListener.cancelAffected] listeners and listeners which [ignore cancelled][EventListener.ignoreCancelled]
+     * events are not called while [event] is [cancelled][Cancellable.isCancelled], the cancellation state is checked again after each called listener,
+     * so listeners which cancel or uncancel the event affect the remaining listeners. Skipped listeners
+     * share the same [EventCancelledError] result.
+     */
+    protected fun <T : Event> dispatchOrdered(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ): List<ListenExecutionResult<T>> =
+            this.dispatchOrdered(this.getDispatchPlan(event, eventType, channel),
+                    event, eventType, dispatcher, channel, ctx)
+
+    /**
+     * Dispatches [event] to listeners of [plan] sequentially, in current thread and in order of [plan].
+     *
+     * @param queueNanos Time the dispatch waited in queue before running, reported to [metrics].
+     */
+    protected fun <T : Event> dispatchOrdered(
+            plan: DispatchPlan,
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext,
+            queueNanos: Long = 0L
+    ): List<ListenExecutionResult<T>> {
+        val listeners = plan.listeners
+        val results = ArrayList<ListenExecutionResult<T>>(listeners.size)
+        val cancellable = if (plan.hasCancelAffected) event as? Cancellable else null
+        var i = 0
+
+        while (i < listeners.size) {
+            if (cancellable != null && cancellable.isCancelled) {
+                val next = plan.nextUnaffected(i)
+
+                while (i < next) {
+                    val container = listeners[i++]
+
+                    this.reportSkipped(container, eventType)
+                    results += ListenExecutionResult(container, event, eventType, dispatcher, channel, CANCELLED, ctx)
+                }
+
+                if (i == listeners.size)
+                    break
+            }
+
+            results += this.dispatchDirect(listeners[i++], event, eventType, dispatcher, channel, ctx, queueNanos)
+        }
+
+        return results
+    }
+
+    /**
+     * Dispatches [event] to listeners in current thread, without allocating results. The only allocations
+     * happen when the [dispatch plan][getDispatchPlan] is not cached and when a listener fails.
+     *
+     * Cancel affected listeners are skipped like in [dispatchOrdered], once
+     * [event] is cancelled, all cancel affected listeners up to the next [unaffected][DispatchPlan.nextUnaffected]
+     * listener are skipped in a single step.
+     */
+    override fun <T : Event> post(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ) {
+        this.post(this.getDispatchPlan(event, eventType, channel), event, eventType, dispatcher, channel, ctx)
+    }
+
+    /**
+     * Dispatches [event] to listeners of [plan] in current thread without allocating results, like [post].
+     *
+     * @param queueNanos Time the dispatch waited in queue before running, reported to [metrics].
+     */
+    protected fun <T : Event> post(
+            plan: DispatchPlan,
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext,
+            queueNanos: Long = 0L
+    ) {
+        val metrics = this.metrics
+        val listeners = plan.listeners
+        val cancellable = if (plan.hasCancelAffected) event as? Cancellable else null
+        var i = 0
+
+        while (i < listeners.size) {
+            if (cancellable != null && cancellable.isCancelled) {
+                val next = plan.nextUnaffected(i)
+
+                if (metrics.isEnabled) {
+                    while (i < next)
+                        this.reportSkipped(listeners[i++], eventType)
+                }
+
+                i = next
+
+                if (i == listeners.size)
+                    break
+            }
+
+            val container = listeners[i++]
+            val start = if (metrics.isEnabled) System.nanoTime() else 0L
+            val failed = try {
+                container.eventListener.helpOnEvent(event, dispatcher) is ListenResult.Failed
+            } catch (throwable: Throwable) {
+                this.logListenerException(container, event, eventType, dispatcher, channel, throwable, ctx)
+                true
+            }
+
+            if (metrics.isEnabled)
+                metrics.onListenerInvoked(container, eventType, queueNanos, System.nanoTime() - start, failed)
+        }
+    }
+
+    private fun reportSkipped(container: EventListenerContainer<*>, eventType: Type) {
+        val metrics = this.metrics
+
+        if (metrics.isEnabled)
+            metrics.onListenerSkipped(container, eventType)
+    }
+
+    /**
+     * Gets the [DispatchPlan] of [eventType] in [channel] from [dispatchPlanCache], or creates it if
+     * there is no plan cached or cache is disabled. The dispatch is reported to [metrics].
+     */
+    protected fun <T : Event> getDispatchPlan(event: T, eventType: Type, channel: String): DispatchPlan {
+        val plan = this.resolveDispatchPlan(event, eventType, channel)
+        val metrics = this.metrics
+
+        if (metrics.isEnabled)
+            metrics.onDispatch(eventType, channel, plan.listeners.size)
+
+        return plan
+    }
+
+    private fun <T : Event> resolveDispatchPlan(event: T, eventType: Type, channel: String): DispatchPlan {
+        val cache = this.dispatchPlanCache ?: return this.createDispatchPlan(event, eventType, channel)
+
+        val cached = cache.get(eventType, channel)
+
+        if (cached != null)
+            return cached
+
+        val stamp = cache.stamp()
+
+        return cache.put(eventType, channel, stamp, this.createDispatchPlan(event, eventType, channel))
+    }
+
+    /**
+     * Creates the [DispatchPlan] of [eventType] in [channel].
+     */
+    protected fun <T : Event> createDispatchPlan(event: T, eventType: Type, channel: String): DispatchPlan {
+        val listeners = this.getListeners(event, eventType, channel).filter {
+            this.check(container = it, eventType = eventType, channel = channel)
+        }
+
+        return if (listeners.isEmpty()) DispatchPlan.EMPTY
+        else DispatchPlan(listeners.toTypedArray())
+    }
+
+    /**
+     * Calls listener of [eventListenerContainer] in current thread, reporting its execution time and
+     * [queueNanos] to [metrics].
+     */
     @Suppress("NOTHING_TO_INLINE")
     protected inline fun <T : Event> dispatchDirect(
             eventListenerContainer: EventListenerContainer<*>,
@@ -140,24 +450,58 @@ abstract class AbstractEventDispatcher : EventDispatcher {
             eventType: Type,
             dispatcher: Any,
             channel: String,
-            ctx: EnvironmentContext
+            ctx: EnvironmentContext,
+            queueNanos: Long = 0L
     ): ListenExecutionResult<T> {
-        return try {
-            val result = eventListenerContainer.eventListener.helpOnEvent(event, dispatcher)
-            ListenExecutionResult(eventListenerContainer, event, eventType, dispatcher, channel, result, ctx)
+        val metrics = this.metrics
+        val start = if (metrics.isEnabled) System.nanoTime() else 0L
+
+        val result = try {
+            eventListenerContainer.eventListener.helpOnEvent(event, dispatcher)
         } catch (throwable: Throwable) {
-            logger.log(
-                    "Cannot dispatch event $event (of type: ${event.eventType})" +
-                            " with provided type '$eventType' to listener " +
-                            "${eventListenerContainer.eventListener} (of event type: ${eventListenerContainer.eventType}) of owner " +
-                            "${eventListenerContainer.owner}. " +
-                            "(Dispatcher: $dispatcher, channel: $channel)",
-                    MessageType.EXCEPTION_IN_LISTENER,
-                    throwable,
-                    ctx
-            )
-            ListenExecutionResult(eventListenerContainer, event, eventType, dispatcher, channel, ListenResult.Failed(ExceptionListenError(throwable)), ctx)
+            this.logListenerException(eventListenerContainer, event, eventType, dispatcher, channel, throwable, ctx)
+            ListenResult.Failed(ExceptionListenError(throwable))
         }
+
+        if (metrics.isEnabled)
+            metrics.onListenerInvoked(eventListenerContainer, eventType, queueNanos,
+                    System.nanoTime() - start, result is ListenResult.Failed)
+
+        return ListenExecutionResult(eventListenerContainer, event, eventType, dispatcher, channel, result, ctx)
+    }
+
+    /**
+     * Gets the time which the queue wait of an asynchronous dispatch is measured from, or `0` if [metrics]
+     * are disabled.
+     */
+    protected fun queuedAt(): Long =
+            if (this.metrics.isEnabled) System.nanoTime() else 0L
+
+    /**
+     * Gets the time elapsed since [queuedAt], or `0` if it was not measured.
+     */
+    protected fun queueNanos(queuedAt: Long): Long =
+            if (queuedAt == 0L) 0L else System.nanoTime() - queuedAt
+
+    protected fun logListenerException(
+            eventListenerContainer: EventListenerContainer<*>,
+            event: Event,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            throwable: Throwable,
+            ctx: EnvironmentContext
+    ) {
+        this.logger.log(
+                "Cannot dispatch event $event (of type: ${event.eventType})" +
+                        " with provided type '$eventType' to listener " +
+                        "${eventListenerContainer.eventListener} (of event type: ${eventListenerContainer.eventType}) of owner " +
+                        "${eventListenerContainer.owner}. " +
+                        "(Dispatcher: $dispatcher, channel: $channel)",
+                MessageType.EXCEPTION_IN_LISTENER,
+                throwable,
+                ctx
+        )
     }
 
     protected fun check(
@@ -179,12 +523,95 @@ abstract class AbstractEventDispatcher : EventDispatcher {
         return checkType() && (ChannelSet.Expression.isAll(listenerPhase) || ChannelSet.Expression.isAll(channel) || listenerPhase == channel)
     }
 
+    /**
+     * Asynchronous dispatch of [event] to a single listener, which is itself the future of the listener result.
+     */
+    private inner class ListenerTask<T : Event>(
+            private val container: EventListenerContainer<*>,
+            private val event: T,
+            private val eventType: Type,
+            private val dispatcher: Any,
+            private val channel: String,
+            private val ctx: EnvironmentContext
+    ) : CompletableFuture<ListenExecutionResult<T>>(), RejectableTask {
+
+        private val queuedAt = queuedAt()
+
+        override fun run() {
+            try {
+                this.complete(dispatchDirect(this.container, this.event, this.eventType, this.dispatcher, this.channel,
+                        this.ctx, queueNanos(this.queuedAt)))
+            } catch (throwable: Throwable) {
+                // Listener exceptions are results, this is a failure of logger or metrics, which would
+                // otherwise leave the future incomplete forever
+                this.completeExceptionally(throwable)
+            }
+        }
+
+        override fun reject(policy: OverloadPolicy) {
+            this.rejectBy(policy)
+        }
+
+        fun rejectBy(policy: OverloadPolicy?) {
+            this.complete(ListenExecutionResult(
+                    this.container,
+                    this.event,
+                    this.eventType,
+                    this.dispatcher,
+                    this.channel,
+                    ListenResult.Failed(DispatchRejectedError(policy)),
+                    this.ctx
+            ))
+        }
+    }
+
+    /**
+     * Ordered asynchronous dispatch of [event], which is itself the future of the listener results. Rejecting
+     * the dispatch rejects all listeners of the [dispatch plan][getDispatchPlan].
+     */
+    private inner class OrderedTask<T : Event>(
+            private val event: T,
+            private val eventType: Type,
+            private val dispatcher: Any,
+            private val channel: String,
+            private val ctx: EnvironmentContext
+    ) : CompletableFuture<List<ListenExecutionResult<T>>>(), RejectableTask {
+
+        private val queuedAt = queuedAt()
+
+        override fun run() {
+            try {
+                this.complete(dispatchOrdered(getDispatchPlan(this.event, this.eventType, this.channel),
+                        this.event, this.eventType, this.dispatcher, this.channel, this.ctx, queueNanos(this.queuedAt)))
+            } catch (throwable: Throwable) {
+                this.completeExceptionally(throwable)
+            }
+        }
+
+        override fun reject(policy: OverloadPolicy) {
+            this.rejectBy(policy)
+        }
+
+        fun rejectBy(policy: OverloadPolicy?) {
+            val rejected = ListenResult.Failed(DispatchRejectedError(policy))
+
+            this.complete(getDispatchPlan(this.event, this.eventType, this.channel).listeners.map {
+                ListenExecutionResult(it, this.event, this.eventType, this.dispatcher, this.channel, rejected, this.ctx)
+            })
+        }
+    }
+
     @Suppress("UNCHECKED_CAST")
     protected fun <T : Event> EventListener<T>.helpOnEvent(event: Any, dispatcher: Any): ListenResult {
         return this.onEvent(event as T, dispatcher)
     }
 }
 
+/**
+ * Result shared by all listeners skipped because the event was cancelled.
+ */
+private val CANCELLED = ListenResult.Failed(EventCancelledError())
+
 fun eventListenerContainerComparator(sorter: Comparator<EventListener<*>>) =
         Comparator<EventListenerContainer<*>> { o1, o2 ->
             val sort = sorter.compare(o1.eventListener, o2.eventListener)
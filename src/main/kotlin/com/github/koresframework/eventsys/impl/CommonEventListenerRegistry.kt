@@ -28,20 +28,31 @@
 package com.github.koresframework.eventsys.impl
 
 import com.github.jonathanxd.iutils.collection.wrapper.WrapperCollections
+import com.github.jonathanxd.kores.base.MethodDeclaration
 import com.github.koresframework.eventsys.channel.ChannelSet
 import com.github.koresframework.eventsys.context.EnvironmentContext
 import com.github.koresframework.eventsys.event.*
 import com.github.koresframework.eventsys.event.EventListener
 import com.github.koresframework.eventsys.event.annotation.Filter
 import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.gen.ResolvableDeclaration
 import com.github.koresframework.eventsys.gen.event.EventGenerator
 import com.github.koresframework.eventsys.gen.event.EventGeneratorOptions
+import com.github.koresframework.eventsys.gen.event.MethodListenerGenerator
 import com.github.koresframework.eventsys.logging.LoggerInterface
 import com.github.koresframework.eventsys.util.hasEventFirstArg
+import com.github.koresframework.eventsys.util.mh.LambdaListener
 import com.github.koresframework.eventsys.util.mh.MethodDispatcher
 import java.lang.reflect.Method
 import java.lang.reflect.Type
 import java.util.*
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicReference
+import java.util.function.Supplier
 
 /**
  * Stores channel listeners in a pair of [Channel name][String] to [EventListener] sorted set,
@@ -55,12 +66,23 @@ class PerChannelEventListenerRegistry(
 ) : AbstractEventListenerRegistry() {
     private val channelListenerMap = mutableMapOf<String, TreeSet<EventListenerContainer<*>>>()
 
+    /**
+     * Listeners of each channel merged with listeners of [ChannelSet.Expression.ALL] channel, cleared when
+     * listeners are registered or removed.
+     */
+    private val mergedListenerMap = mutableMapOf<String, List<EventListenerContainer<*>>>()
+
     override fun <T : Event> registerListener(owner: Any,
                                               eventType: Type,
                                               eventListener: EventListener<T>): ListenerRegistryResults {
+        val container = EventListenerContainer(owner, eventType, eventListener)
+
         this.channelListenerMap.computeIfAbsent(eventListener.channel) {
             TreeSet(eventListenerContainerComparator(sorter))
-        }.add(EventListenerContainer(owner, eventType, eventListener))
+        }.add(container)
+        this.mergedListenerMap.clear()
+
+        this.notifyRegistered(container)
 
         return registered(eventListener).coerce()
     }
@@ -69,10 +91,29 @@ class PerChannelEventListenerRegistry(
             if (ChannelSet.Expression.isAll(channel)) {
                 this.channelListenerMap[channel] ?: emptySet()
             } else {
-                (this.channelListenerMap[channel] ?: emptySet<EventListenerContainer<*>>()) +
-                        (this.channelListenerMap[ChannelSet.Expression.ALL] ?: emptySet())
+                // Listeners of both channels are merged, so dispatch follows the sorter order
+                this.mergedListenerMap.getOrPut(channel) {
+                    mergeSorted(
+                            this.channelListenerMap[channel] ?: emptySet(),
+                            this.channelListenerMap[ChannelSet.Expression.ALL] ?: emptySet(),
+                            this.sorter
+                    )
+                }
             }.filter { it.isAssignableFrom(eventType) }
 
+    override fun removeListeners(predicate: (EventListenerContainer<*>) -> Boolean): List<EventListenerContainer<*>> {
+        val removed = mutableListOf<EventListenerContainer<*>>()
+
+        this.channelListenerMap.values.forEach {
+            it.removeInto(removed, predicate)
+        }
+
+        if (removed.isNotEmpty())
+            this.mergedListenerMap.clear()
+
+        return removed
+    }
+
     override fun getListenersContainers(): Set<EventListenerContainer<*>> =
             this.channelListenerMap.values.flatten().toSet()
 
@@ -90,7 +131,11 @@ class SharedSetChannelEventListenerRegistry(private val sorter: Comparator<Event
     override fun <T : Event> registerListener(owner: Any,
                                               eventType: Type,
                                               eventListener: EventListener<T>): ListenerRegistryResults {
-        this.listeners.add(EventListenerContainer(owner, eventType, eventListener))
+        val container = EventListenerContainer(owner, eventType, eventListener)
+
+        this.listeners.add(container)
+        this.notifyRegistered(container)
+
         return registered(eventListener).coerce()
     }
 
@@ -101,6 +146,11 @@ class SharedSetChannelEventListenerRegistry(private val sorter: Comparator<Event
                 .filter { channel == it.eventListener.channel }
     }.filter { it.isAssignableFrom(eventType) }
 
+    override fun removeListeners(predicate: (EventListenerContainer<*>) -> Boolean): List<EventListenerContainer<*>> =
+            mutableListOf<EventListenerContainer<*>>().also {
+                this.listeners.removeInto(it, predicate)
+            }
+
     override fun getListenersContainers(): Set<EventListenerContainer<*>> =
             this.listeners
 
@@ -120,11 +170,21 @@ class CommonChannelEventListenerRegistry(override val channels: ChannelSet,
 
     private val channelToListenerMap: MutableMap<String, TreeSet<EventListenerContainer<*>>> = hashMapOf()
 
+    /**
+     * Listeners of all channels sorted together, cleared when listeners are registered or removed.
+     */
+    private var allChannelsListeners: Set<EventListenerContainer<*>>? = null
+
     override fun <T : Event> registerListener(owner: Any, eventType: Type, eventListener: EventListener<T>): ListenerRegistryResults {
         return if (channels.contains(eventListener.channel)) {
+            val container = EventListenerContainer(owner, eventType, eventListener)
+
             this.channelToListenerMap.computeIfAbsent(eventListener.channel) {
                 TreeSet(eventListenerContainerComparator(sorter))
-            }.add(EventListenerContainer(owner, eventType, eventListener))
+            }.add(container)
+            this.allChannelsListeners = null
+
+            this.notifyRegistered(container)
             registered(eventListener)
         } else {
             notRegistered(eventListener)
@@ -132,19 +192,262 @@ class CommonChannelEventListenerRegistry(override val channels: ChannelSet,
     }
 
     override fun <T : Event> getListeners(event: T, eventType: Type, channel: String): Iterable<EventListenerContainer<*>> {
-        return WrapperCollections.immutableSet(
-                if (ChannelSet.Expression.isAll(channel)) {
-                    this.channelToListenerMap.values.flatten().toSet()
-                } else {
-                    this.channelToListenerMap.getOrDefault(channel, emptySet())
-                }
-        )
+        return if (ChannelSet.Expression.isAll(channel)) {
+            // Listeners of all channels are sorted together, so dispatch follows the sorter order
+            this.allChannelsListeners ?: WrapperCollections.immutableSet(
+                    this.channelToListenerMap.values.flatten()
+                            .sortedWith(Comparator { a, b -> this.sorter.compare(a.eventListener, b.eventListener) })
+                            .toCollection(LinkedHashSet())
+            ).also { this.allChannelsListeners = it }
+        } else {
+            WrapperCollections.immutableSet(this.channelToListenerMap.getOrDefault(channel, emptySet()))
+        }
+    }
+
+    override fun removeListeners(predicate: (EventListenerContainer<*>) -> Boolean): List<EventListenerContainer<*>> {
+        val removed = mutableListOf<EventListenerContainer<*>>()
+
+        this.channelToListenerMap.values.forEach {
+            it.removeInto(removed, predicate)
+        }
+
+        if (removed.isNotEmpty())
+            this.allChannelsListeners = null
+
+        return removed
     }
 
     override fun getListenersContainers(): Set<EventListenerContainer<*>> =
             this.channelToListenerMap.values.flatten().toSet()
 }
 
+/**
+ * Copy-on-write implementation of listener registry, safe to be used concurrently.
+ *
+ * Every registration and unregistration builds a new immutable snapshot of listeners (sorted by [sorter]
+ * and already separated by channel), which is then published to readers. This way, readers (dispatchers)
+ * never lock nor allocate to retrieve listeners, while writers pay the copy cost. This is the preferred
+ * implementation for applications which dispatches a lot more than registers, or which registers
+ * and unregisters listeners at runtime, such as plugin systems.
+ *
+ * Listeners returned by [getListeners] are filtered by event type, filtered listeners are cached in the snapshot
+ * by channel and event type, so dispatching the same event type again does not filter nor allocate.
+ *
+ * Dispatching to [ChannelSet.Expression.ALL] reaches listeners of all channels.
+ */
+class CopyOnWriteEventListenerRegistry(
+        private val sorter: Comparator<EventListener<*>>,
+        override val logger: LoggerInterface,
+        override val eventGenerator: EventGenerator
+) : AbstractEventListenerRegistry() {
+
+    private val lock = Any()
+
+    @Volatile
+    private var snapshot = Snapshot.EMPTY
+
+    override fun <T : Event> registerListener(owner: Any,
+                                              eventType: Type,
+                                              eventListener: EventListener<T>): ListenerRegistryResults {
+        val container = EventListenerContainer(owner, eventType, eventListener)
+
+        synchronized(this.lock) {
+            val listeners = this.snapshot.listeners
+            val index = this.insertionIndex(listeners, container)
+
+            this.snapshot = Snapshot.of(ArrayList<EventListenerContainer<*>>(listeners.size + 1).apply {
+                addAll(listeners.subList(0, index))
+                add(container)
+                addAll(listeners.subList(index, listeners.size))
+            })
+        }
+
+        this.notifyRegistered(container)
+
+        return registered(eventListener).coerce()
+    }
+
+    /**
+     * Merges all [containers] into a single new snapshot.
+     */
+    override fun registerContainers(containers: List<EventListenerContainer<*>>): ListenerRegistryResults {
+        val added = containers.sortedWith(Comparator { a, b -> this.sorter.compare(a.eventListener, b.eventListener) })
+
+        synchronized(this.lock) {
+            val listeners = this.snapshot.listeners
+            val merged = ArrayList<EventListenerContainer<*>>(listeners.size + added.size)
+            var i = 0
+            var j = 0
+
+            while (i < listeners.size && j < added.size) {
+                if (this.sorter.compare(listeners[i].eventListener, added[j].eventListener) <= 0)
+                    merged += listeners[i++]
+                else
+                    merged += added[j++]
+            }
+
+            merged.addAll(listeners.subList(i, listeners.size))
+            merged.addAll(added.subList(j, added.size))
+
+            this.snapshot = Snapshot.of(merged)
+        }
+
+        this.notifyRegisteredAll(containers)
+
+        return ListenerRegistryResults(containers.map { this.registered(it.eventListener) })
+    }
+
+    /**
+     * Finds the index to insert [container] at, after all listeners which are not sorted after it, so listeners
+     * with same priority keeps the registration order.
+     */
+    private fun insertionIndex(listeners: List<EventListenerContainer<*>>, container: EventListenerContainer<*>): Int {
+        var low = 0
+        var high = listeners.size
+
+        while (low < high) {
+            val mid = (low + high) ushr 1
+
+            if (this.sorter.compare(listeners[mid].eventListener, container.eventListener) <= 0)
+                low = mid + 1
+            else
+                high = mid
+        }
+
+        return low
+    }
+
+    override fun removeListeners(predicate: (EventListenerContainer<*>) -> Boolean): List<EventListenerContainer<*>> =
+            synchronized(this.lock) {
+                val listeners = this.snapshot.listeners
+                val removed = listeners.filter(predicate)
+
+                if (removed.isNotEmpty())
+                    this.snapshot = Snapshot.of(listeners.filterNot(predicate))
+
+                removed
+            }
+
+    override fun <T : Event> getListeners(event: T, eventType: Type, channel: String): Iterable<EventListenerContainer<*>> =
+            this.snapshot.getListeners(channel, eventType)
+
+    override fun getListenersContainers(): Set<EventListenerContainer<*>> =
+            this.snapshot.containers
+
+    /**
+     * Immutable view of registered listeners.
+     *
+     * @property listeners All listeners sorted by priority.
+     * @property allChannel Listeners of [ChannelSet.Expression.ALL] channel, sorted by priority.
+     * @property channels Channel to listeners of the channel and of [ChannelSet.Expression.ALL] channel,
+     * sorted by priority.
+     */
+    private class Snapshot(val listeners: List<EventListenerContainer<*>>,
+                           val allChannel: List<EventListenerContainer<*>>,
+                           val channels: Map<String, List<EventListenerContainer<*>>>) {
+
+        val containers: Set<EventListenerContainer<*>> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+            Collections.unmodifiableSet(LinkedHashSet(this.listeners))
+        }
+
+        /**
+         * Listeners filtered by event type, by channel. Discarded with the snapshot.
+         */
+        private val byType = ConcurrentHashMap<String, ConcurrentHashMap<Type, List<EventListenerContainer<*>>>>()
+
+        fun getListeners(channel: String): List<EventListenerContainer<*>> =
+                if (ChannelSet.Expression.isAll(channel)) this.listeners
+                else this.channels[channel] ?: this.allChannel
+
+        fun getListeners(channel: String, eventType: Type): List<EventListenerContainer<*>> {
+            val byType = this.byType[channel] ?: this.byType.computeIfAbsent(channel) { ConcurrentHashMap() }
+
+            return byType[eventType] ?: byType.computeIfAbsent(eventType) {
+                Collections.unmodifiableList(this.getListeners(channel).filter { it.isAssignableFrom(eventType) })
+            }
+        }
+
+        companion object {
+            val EMPTY = Snapshot(emptyList(), emptyList(), emptyMap())
+
+            fun of(listeners: List<EventListenerContainer<*>>): Snapshot {
+                val allChannel = listeners.filter { ChannelSet.Expression.isAll(it.eventListener.channel) }
+                val channels = listeners
+                        .map { it.eventListener.channel }
+                        .filterNot { ChannelSet.Expression.isAll(it) }
+                        .toSet()
+                        .associateWith { channel ->
+                            Collections.unmodifiableList(listeners.filter {
+                                it.eventListener.channel == channel
+                                        || ChannelSet.Expression.isAll(it.eventListener.channel)
+                            })
+                        }
+
+                return Snapshot(
+                        Collections.unmodifiableList(listeners),
+                        Collections.unmodifiableList(allChannel),
+                        channels
+                )
+            }
+        }
+    }
+}
+
+/**
+ * Merges [first] and [second], which are already sorted by [sorter], into a single sorted list. Listeners of [first]
+ * come before listeners of [second] with same priority.
+ */
+private fun mergeSorted(
+        first: Collection<EventListenerContainer<*>>,
+        second: Collection<EventListenerContainer<*>>,
+        sorter: Comparator<EventListener<*>>
+): List<EventListenerContainer<*>> {
+    val merged = ArrayList<EventListenerContainer<*>>(first.size + second.size)
+    val firstIterator = first.iterator()
+    val secondIterator = second.iterator()
+    var a = if (firstIterator.hasNext()) firstIterator.next() else null
+    var b = if (secondIterator.hasNext()) secondIterator.next() else null
+
+    while (a != null && b != null) {
+        if (sorter.compare(a.eventListener, b.eventListener) <= 0) {
+            merged += a
+            a = if (firstIterator.hasNext()) firstIterator.next() else null
+        } else {
+            merged += b
+            b = if (secondIterator.hasNext()) secondIterator.next() else null
+        }
+    }
+
+    if (a != null) merged += a
+    if (b != null) merged += b
+    firstIterator.forEachRemaining { merged += it }
+    secondIterator.forEachRemaining { merged += it }
+
+    return Collections.unmodifiableList(merged)
+}
+
+/**
+ * Removes all elements matching [predicate] from receiver and adds them to [removed].
+ *
+ * Elements are removed through the [iterator][MutableIterator.remove] because listener sets are sorted
+ * with comparators which never consider two listeners equal, so [TreeSet.remove] is not able to find them.
+ */
+private fun MutableIterable<EventListenerContainer<*>>.removeInto(
+        removed: MutableList<EventListenerContainer<*>>,
+        predicate: (EventListenerContainer<*>) -> Boolean
+) {
+    val iterator = this.iterator()
+
+    while (iterator.hasNext()) {
+        val container = iterator.next()
+
+        if (predicate(container)) {
+            iterator.remove()
+            removed += container
+        }
+    }
+}
+
 /**
  * Abstract implementation of [EventListenerRegistry].
  *
@@ -154,28 +457,125 @@ class CommonChannelEventListenerRegistry(override val channels: ChannelSet,
  * - Some common implementation of [getListeners] methods.
  *
  * Each implementation may chose your own listener retrieval logic. They could be [channel based][ChannelSet],
- * [event type based][Event.eventType], shared and mixed. EventSys provides only shared implementation and
- * channel based one:
+ * [event type based][Event.eventType], shared and mixed. EventSys provides shared implementation,
+ * channel based one and a concurrent one:
  * - [Shared implementation][SharedSetChannelEventListenerRegistry]
  * - [Channel Based implementation][PerChannelEventListenerRegistry]
+ * - [Concurrent implementation][CopyOnWriteEventListenerRegistry]
+ *
+ * Only [CopyOnWriteEventListenerRegistry] is safe to be mutated while listeners are retrieved from other threads.
  *
  * A mixed implementation may be a bit hard to implement and may not provide the enough
  * performance improvement to consider implementing, but if you are curious how to do that, you firstly
  * needs a [channel based][ChannelSet] retrieval and then an [event type based][Event.eventType]
  * retrieval. Then, stores the listener on each node with sub-types mapped to listener.
+ *
+ * Implementations must call [notifyRegistered] after a listener is registered, so
+ * [observers][EventListenerRegistryObserver] (such as dispatch plan caches) are kept up to date. Unregistration
+ * is implemented through [removeListeners], which notifies observers of removed listeners.
  */
-abstract class AbstractEventListenerRegistry : EventListenerRegistry {
+abstract class AbstractEventListenerRegistry : ObservableEventListenerRegistry, UnregisterableEventListenerRegistry {
 
 
     protected abstract val logger: LoggerInterface
     protected abstract val eventGenerator: EventGenerator
 
+    private val observers = CopyOnWriteArrayList<EventListenerRegistryObserver>()
+
+    /**
+     * Listener classes which [eventGenerator] generated method listeners for, by owner.
+     */
+    private val ownerListenerClasses = ConcurrentHashMap<Any, MutableSet<Type>>()
+
+    /**
+     * Amount of owners using each listener class. Listener classes are released when the last owner
+     * which uses them is unregistered.
+     */
+    private val listenerClassOwners = ConcurrentHashMap<Type, Int>()
+
+    /**
+     * Listener methods by listener class. Registering another instance of a known class only instantiates
+     * its listeners, the class is not reflected again and listener specifications are not resolved again.
+     * Released together with generated listener classes.
+     */
+    private val listenerClassCache = ConcurrentHashMap<Type, List<ListenerMethod>>()
+
     protected abstract fun <T : Event> getListeners(
             event: T,
             eventType: Type,
             channel: String
     ): Iterable<EventListenerContainer<*>>
 
+    // Observers
+
+    override fun addObserver(observer: EventListenerRegistryObserver) {
+        this.observers.addIfAbsent(observer)
+    }
+
+    override fun removeObserver(observer: EventListenerRegistryObserver) {
+        this.observers.remove(observer)
+    }
+
+    protected fun notifyRegistered(container: EventListenerContainer<*>) {
+        this.observers.forEach { it.onRegister(container) }
+    }
+
+    protected fun notifyRegisteredAll(containers: List<EventListenerContainer<*>>) {
+        this.observers.forEach { it.onRegisterAll(containers) }
+    }
+
+    protected fun notifyUnregistered(container: EventListenerContainer<*>) {
+        this.observers.forEach { it.onUnregister(container) }
+    }
+
+    // /Observers
+    // Unregister
+
+    /**
+     * Removes all listeners matching [predicate] from this registry.
+     *
+     * @return Removed listeners.
+     */
+    protected abstract fun removeListeners(
+            predicate: (EventListenerContainer<*>) -> Boolean
+    ): List<EventListenerContainer<*>>
+
+    private fun unregister(predicate: (EventListenerContainer<*>) -> Boolean): Int {
+        val removed = this.removeListeners(predicate)
+
+        removed.forEach {
+            this.notifyUnregistered(it)
+        }
+
+        return removed.size
+    }
+
+    override fun unregisterListener(eventListener: EventListener<*>): Boolean =
+            this.unregister { it.eventListener == eventListener } > 0
+
+    override fun unregisterAll(owner: Any): Int =
+            this.unregister { it.owner == owner }.also {
+                this.ownerListenerClasses.remove(owner)?.forEach(this::releaseListenerClass)
+            }
+
+    /**
+     * Releases an owner reference to [listenerClass], when no other owner uses [listenerClass], its
+     * listener metadata and generated classes are released.
+     */
+    private fun releaseListenerClass(listenerClass: Type) {
+        this.listenerClassOwners.computeIfPresent(listenerClass) { _, owners ->
+            if (owners > 1) {
+                owners - 1
+            } else {
+                // Released while holding the entry, so concurrent registrations of the class wait for it
+                this.listenerClassCache.remove(listenerClass)
+                this.eventGenerator.releaseListenerClass(listenerClass)
+                null
+            }
+        }
+    }
+
+    // /Unregister
     // Register
 
     @Suppress("UNCHECKED_CAST")
@@ -194,6 +594,37 @@ abstract class AbstractEventListenerRegistry : EventListenerRegistry {
                     }.flatMap { it.results }
             )
 
+    override fun registerListeners(listeners: Collection<@JvmSuppressWildcards Pair<Any, Any>>,
+                                   ctx: EnvironmentContext): ListenerRegistryResults {
+        // Listener classes first tracked by this registration, untracked if it fails
+        val tracked = ConcurrentLinkedQueue<Pair<Any, Type>>()
+
+        val pending = listeners.map { (owner, listener) ->
+            // Listener classes are reflected and listener specifications resolved in generator executor
+            CompletableFuture.supplyAsync(Supplier { this.listenerMethods(listener) }, this.eventGenerator.executor)
+                    .thenCompose { methods ->
+                        if (methods.isNotEmpty() && this.trackListenerClass(owner, listener::class.java))
+                            tracked += owner to listener::class.java
+
+                        val containers = methods.map { this.createInstanceMethodListenerAsync(owner, listener, it, ctx) }
+
+                        CompletableFuture.allOf(*containers.toTypedArray()).thenApply { _ ->
+                            containers.map { it.join() }
+                        }
+                    }
+        }
+
+        try {
+            // Waits all registrations, so none is tracking listener classes when the failed one is rolled back
+            CompletableFuture.allOf(*pending.toTypedArray()).join()
+        } catch (e: CompletionException) {
+            tracked.forEach { (owner, listenerClass) -> this.untrackListenerClass(owner, listenerClass) }
+            throw e.cause ?: e
+        }
+
+        return this.registerContainers(pending.flatMap { it.join() })
+    }
+
     override fun registerMethodListener(
             owner: Any,
             eventClass: Type,
@@ -219,6 +650,8 @@ abstract class AbstractEventListenerRegistry : EventListenerRegistry {
             method: Method,
             ctx: EnvironmentContext
     ): EventListenerContainer<*> {
+        this.trackListenerClass(owner, listenerClass)
+
         return this.eventGenerator.createListenerSpecFromMethod(method).let { spec ->
             EventListenerContainer(
                     owner,
@@ -239,9 +672,22 @@ abstract class AbstractEventListenerRegistry : EventListenerRegistry {
             owner: Any,
             instance: Any,
             ctx: EnvironmentContext
-    ): List<EventListenerContainer<*>> {
+    ): List<EventListenerContainer<*>> =
+            this.listenerMethods(instance).map {
+                this.createInstanceMethodListener(owner, instance, it, ctx)
+            }
+
+    private fun listenerMethods(instance: Any): List<ListenerMethod> {
+        val listenerClass = instance::class.java
+
+        this.listenerClassCache[listenerClass]?.let { return it }
 
-        return instance::class.java.declaredMethods.filter {
+        // Resolved outside of computeIfAbsent, so reflection and declaration resolution do not hold the map lock,
+        // concurrent resolutions of the same class are equivalent and only the first is kept.
+        val declarationCache = this.eventGenerator.generationEnvironment.declarationCache
+        val declaration = declarationCache[listenerClass]
+
+        val methods = listenerClass.declaredMethods.filter {
             val reqArg = it.getDeclaredAnnotation(Filter::class.java).hasEventFirstArg()
             if (it.getDeclaredAnnotation(Listener::class.java) != null)
                 if (reqArg)
@@ -249,29 +695,77 @@ abstract class AbstractEventListenerRegistry : EventListenerRegistry {
                             && Event::class.java.isAssignableFrom(it.parameterTypes[0])
                 else true
             else false
+        }.map { method ->
+            val methodDeclaration = declarationCache.findMethod(declaration, method)
+                    ?: throw IllegalStateException("Cannot find declaration of listener method '$method'.")
 
-        }.map {
-            if (this.eventGenerator.options[EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER]) {
-                val data = this.eventGenerator.createListenerSpecFromMethod(it)
+            ListenerMethod(method, methodDeclaration, this.eventGenerator.createListenerSpecFromMethod(methodDeclaration))
+        }
 
-                @Suppress("UNCHECKED_CAST")
-                return@map EventListenerContainer(
-                        owner = owner,
-                        eventType = data.eventType,
-                        eventListener = MethodDispatcher(data, it, instance)
-                )
-            } else {
-                return@map this.createMethodListener(
-                        listenerClass = instance::class.java,
-                        owner = owner,
-                        method = it,
-                        instance = instance,
-                        ctx = ctx
-                )
+        return this.listenerClassCache.putIfAbsent(listenerClass, methods) ?: methods
+    }
+
+    /**
+     * Tracks [listenerClass] as used by [owner].
+     *
+     * @return Whether [listenerClass] was not tracked for [owner] yet.
+     */
+    private fun trackListenerClass(owner: Any, listenerClass: Type): Boolean =
+            this.ownerListenerClasses.computeIfAbsent(owner) { ConcurrentHashMap.newKeySet() }.add(listenerClass).also {
+                if (it)
+                    this.listenerClassOwners.merge(listenerClass, 1) { owners, _ -> owners + 1 }
             }
+
+    /**
+     * Reverts [trackListenerClass] of [listenerClass] for [owner].
+     */
+    private fun untrackListenerClass(owner: Any, listenerClass: Type) {
+        if (this.ownerListenerClasses[owner]?.remove(listenerClass) == true)
+            this.releaseListenerClass(listenerClass)
+    }
+
+    private fun createInstanceMethodListener(
+            owner: Any,
+            instance: Any,
+            listenerMethod: ListenerMethod,
+            ctx: EnvironmentContext
+    ): EventListenerContainer<*> {
+        this.trackListenerClass(owner, instance::class.java)
+
+        return EventListenerContainer(
+                owner = owner,
+                eventType = listenerMethod.spec.eventType,
+                eventListener = listenerMethod.instantiator(ctx)(instance)
+        )
+    }
+
+    /**
+     * Creates listener of [listenerMethod] of [instance], generating listener class in [eventGenerator] executor
+     * if it was not generated yet. The listener class must be already [tracked][trackListenerClass] for [owner].
+     */
+    private fun createInstanceMethodListenerAsync(
+            owner: Any,
+            instance: Any,
+            listenerMethod: ListenerMethod,
+            ctx: EnvironmentContext
+    ): CompletableFuture<EventListenerContainer<*>> {
+        if (this.eventGenerator.options[EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER]
+                || this.eventGenerator.options[EventGeneratorOptions.USE_LAMBDA_LISTENER])
+            return CompletableFuture.completedFuture(this.createInstanceMethodListener(owner, instance, listenerMethod, ctx))
+
+        return listenerMethod.generatedAsync(ctx).thenApply<EventListenerContainer<*>> {
+            EventListenerContainer(owner, listenerMethod.spec.eventType, it(instance))
         }
     }
 
+    /**
+     * Registers all [containers]. Implementations could override this method to publish all containers at once.
+     */
+    protected open fun registerContainers(containers: List<EventListenerContainer<*>>): ListenerRegistryResults =
+            ListenerRegistryResults(containers.flatMap {
+                this.registerGenericListener<Event>(it.owner, it.eventType, it.eventListener).results
+            })
+
     // /Register
     // Retrieval
 
@@ -300,5 +794,76 @@ abstract class AbstractEventListenerRegistry : EventListenerRegistry {
 
     // /Retrieval
 
+    /**
+     * Cached metadata of a listener [method] of [listenerClass][Method.getDeclaringClass]. Listener instantiation
+     * is linked once for each listener kind.
+     */
+    private inner class ListenerMethod(val method: Method,
+                                       val declaration: MethodDeclaration,
+                                       val spec: ListenerSpec) {
+        private val listenerClass = this.method.declaringClass
+
+        private val lambda by lazy(LazyThreadSafetyMode.PUBLICATION) {
+            LambdaListener.factory(this.spec, this.method)
+        }
+
+        private val generated = AtomicReference<CompletableFuture<(Any?) -> EventListener<Event>>>()
+
+        fun instantiator(ctx: EnvironmentContext): (Any?) -> EventListener<*> =
+                if (eventGenerator.options[EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER])
+                    ({ instance -> MethodDispatcher(this.spec, this.method, instance) })
+                else if (eventGenerator.options[EventGeneratorOptions.USE_LAMBDA_LISTENER])
+                    this.lambda
+                else
+                    this.generated(ctx)
+
+        /**
+         * Links instantiation of generated listener class in the caller thread, unless it is already linked.
+         */
+        fun generated(ctx: EnvironmentContext): (Any?) -> EventListener<Event> {
+            val linked = this.generated.get()
+
+            if (linked != null && linked.isDone && !linked.isCompletedExceptionally)
+                return linked.join()
+
+            return this.link(eventGenerator.createMethodListener(this.listenerClass, this.declaration, this.spec, ctx)).also {
+                this.generated.compareAndSet(linked, CompletableFuture.completedFuture(it))
+            }
+        }
+
+        /**
+         * Links instantiation of generated listener class, generating the class in [eventGenerator] executor.
+         * Concurrent calls share the same generation.
+         */
+        fun generatedAsync(ctx: EnvironmentContext): CompletableFuture<(Any?) -> EventListener<Event>> {
+            this.generated.get()?.let { return it }
+
+            val future = CompletableFuture<(Any?) -> EventListener<Event>>()
+
+            if (!this.generated.compareAndSet(null, future))
+                return this.generated.get()
+
+            eventGenerator.createMethodListenerAsync(this.listenerClass, this.declaration, this.spec, ctx)
+                    .thenApply { this.link(it) }
+                    .whenComplete { linked, throwable ->
+                        if (throwable != null) {
+                            // Allows next registration to retry
+                            this.generated.compareAndSet(future, null)
+                            future.completeExceptionally(
+                                    if (throwable is CompletionException) throwable.cause ?: throwable
+                                    else throwable
+                            )
+                        } else {
+                            future.complete(linked)
+                        }
+                    }
+
+            return future
+        }
+
+        private fun link(declaration: ResolvableDeclaration<Class<out EventListener<Event>>>) =
+                MethodListenerGenerator.instantiator(declaration, this.declaration, this.listenerClass)
+    }
+
 
 }
\ No newline at end of file
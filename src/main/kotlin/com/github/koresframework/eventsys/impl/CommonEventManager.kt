@@ -82,6 +82,9 @@ class DefaultEventManager @JvmOverloads constructor(
     }
 }
 
+/**
+ * Logger which prints messages to [System.err], messages below [Level.INFO] are ignored.
+ */
 class CommonLogger : LoggerInterface {
     override fun log(messages: List<String>, messageType: MessageType, ctx: EnvironmentContext) {
         log(messages.joinToString("\n"), messageType, ctx)
@@ -92,6 +95,9 @@ class CommonLogger : LoggerInterface {
     }
 
     override fun log(message: String, messageType: MessageType, ctx: EnvironmentContext) {
+        if (messageType.level < Level.INFO)
+            return
+
         if (messageType.level == Level.FATAL) {
             throw IllegalStateException("Fatal error occurred: $message")
         } else {
@@ -100,6 +106,9 @@ class CommonLogger : LoggerInterface {
     }
 
     override fun log(message: String, messageType: MessageType, throwable: Throwable, ctx: EnvironmentContext) {
+        if (messageType.level < Level.INFO)
+            return
+
         System.err.println(message)
 
         if (messageType.level == Level.FATAL) {
@@ -0,0 +1,187 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.impl
+
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.event.EventListenerRegistryObserver
+import com.github.koresframework.eventsys.event.ObservableEventListenerRegistry
+import java.lang.reflect.Type
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Pre-computed listeners of an event type in a channel.
+ *
+ * Listeners are also partitioned by cancel affection, so dispatchers can skip all cancel affected listeners
+ * of a cancelled event up to the next [unaffected][nextUnaffected] listener in a single step. A listener is
+ * cancel affected when it is [EventListener.cancelAffected] or [ignores cancelled events][EventListener.ignoreCancelled].
+ *
+ * @property listeners Listeners which accepts the event type and channel, in the registry order. Registries of EventSys
+ * provide listeners sorted by their sorter, which is [priority][EventListener.priority] order by default.
+ */
+class DispatchPlan(val listeners: Array<EventListenerContainer<*>>) {
+
+    private val nextUnaffected = IntArray(this.listeners.size)
+
+    /**
+     * Whether any listener of this plan is cancel affected.
+     */
+    val hasCancelAffected: Boolean
+
+    init {
+        var next = this.listeners.size
+
+        for (i in this.listeners.indices.reversed()) {
+            val listener = this.listeners[i].eventListener
+
+            if (!listener.cancelAffected && !listener.ignoreCancelled)
+                next = i
+
+            this.nextUnaffected[i] = next
+        }
+
+        this.hasCancelAffected = this.listeners.indices.any { this.nextUnaffected[it] != it }
+    }
+
+    /**
+     * Amount of listeners of this plan.
+     */
+    val size: Int
+        get() = this.listeners.size
+
+    /**
+     * Gets the index of first listener at or after [index] which is not cancel affected
+     * (neither [EventListener.cancelAffected] nor [EventListener.ignoreCancelled]), or [size] if there is none.
+     */
+    fun nextUnaffected(index: Int): Int = this.nextUnaffected[index]
+
+    companion object {
+        /**
+         * Plan without listeners.
+         */
+        @JvmField
+        val EMPTY = DispatchPlan(emptyArray())
+    }
+}
+
+/**
+ * Cache of [dispatch plans][DispatchPlan] keyed by event type and channel.
+ *
+ * This cache observes the [ObservableEventListenerRegistry], and when a listener is registered or unregistered,
+ * only the plans which the listener is [eligible][matcher] for are invalidated.
+ *
+ * @param matcher Function used to determine whether a listener container is eligible for an event type and channel.
+ */
+class DispatchPlanCache(
+        private val matcher: (container: EventListenerContainer<*>, eventType: Type, channel: String) -> Boolean
+) : EventListenerRegistryObserver {
+
+    private val plans = ConcurrentHashMap<String, ConcurrentHashMap<Type, DispatchPlan>>()
+    private val version = AtomicLong()
+
+    /**
+     * Gets the cached plan for [eventType] in [channel].
+     */
+    fun get(eventType: Type, channel: String): DispatchPlan? =
+            this.plans[channel]?.get(eventType)
+
+    /**
+     * Current modification stamp, must be read before computing a plan to [put].
+     */
+    fun stamp(): Long = this.version.get()
+
+    /**
+     * Caches the [plan] of [eventType] in [channel] computed after [stamp] was read. If the registry changed
+     * since then, the [plan] is still returned, but is not kept in the cache.
+     *
+     * @return Plan to use, which may be a plan cached concurrently by other thread.
+     */
+    fun put(eventType: Type, channel: String, stamp: Long, plan: DispatchPlan): DispatchPlan {
+        val channelPlans = this.plans.computeIfAbsent(channel) { ConcurrentHashMap() }
+        val current = channelPlans.putIfAbsent(eventType, plan)
+
+        if (current == null && this.version.get() != stamp) {
+            channelPlans.remove(eventType, plan)
+        }
+
+        return current ?: plan
+    }
+
+    /**
+     * Invalidates all cached plans.
+     */
+    fun invalidateAll() {
+        this.version.incrementAndGet()
+        this.plans.clear()
+    }
+
+    /**
+     * Invalidates all cached plans which [container] is eligible for.
+     */
+    fun invalidate(container: EventListenerContainer<*>) {
+        this.version.incrementAndGet()
+        this.plans.forEach { (channel, channelPlans) ->
+            channelPlans.keys.removeIf { this.matcher(container, it, channel) }
+        }
+    }
+
+    /**
+     * Invalidates all cached plans which any of [containers] is eligible for.
+     */
+    fun invalidate(containers: List<EventListenerContainer<*>>) {
+        this.version.incrementAndGet()
+        this.plans.forEach { (channel, channelPlans) ->
+            channelPlans.keys.removeIf { eventType -> containers.any { this.matcher(it, eventType, channel) } }
+        }
+    }
+
+    override fun onRegister(container: EventListenerContainer<*>) {
+        this.invalidate(container)
+    }
+
+    override fun onRegisterAll(containers: List<EventListenerContainer<*>>) {
+        this.invalidate(containers)
+    }
+
+    override fun onUnregister(container: EventListenerContainer<*>) {
+        this.invalidate(container)
+    }
+
+    companion object {
+        /**
+         * Creates a [DispatchPlanCache] which observes [registry], or `null` if [registry] is not
+         * [observable][ObservableEventListenerRegistry], as plans could not be invalidated.
+         */
+        @JvmStatic
+        fun observing(registry: Any,
+                      matcher: (container: EventListenerContainer<*>, eventType: Type, channel: String) -> Boolean): DispatchPlanCache? =
+                (registry as? ObservableEventListenerRegistry)?.let {
+                    DispatchPlanCache(matcher).also { cache -> it.addObserver(cache) }
+                }
+    }
+}
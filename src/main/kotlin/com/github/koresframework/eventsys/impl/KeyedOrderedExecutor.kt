@@ -0,0 +1,141 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.impl
+
+import com.github.jonathanxd.iutils.kt.typedKeyOf
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.Event
+import java.lang.reflect.Type
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+/**
+ * Executor which runs tasks with the same key serially, in submission order, and tasks with different
+ * keys concurrently.
+ *
+ * Keys are mapped to one of [stripes] single-threaded workers, so different keys which are mapped to
+ * the same stripe are also run serially. Idle workers are stopped after [keepAlive] seconds and started
+ * again when a task is submitted.
+ *
+ * @param stripes Amount of workers.
+ * @param threadFactory Factory of worker threads.
+ * @param keepAlive Seconds to keep idle workers alive.
+ */
+class KeyedOrderedExecutor @JvmOverloads constructor(
+        val stripes: Int = Runtime.getRuntime().availableProcessors(),
+        threadFactory: ThreadFactory = Executors.defaultThreadFactory(),
+        keepAlive: Long = 60L
+) {
+
+    init {
+        require(this.stripes > 0) { "Amount of stripes must be positive, provided: '${this.stripes}'." }
+    }
+
+    private val workers = Array(this.stripes) {
+        ThreadPoolExecutor(1, 1, keepAlive, TimeUnit.SECONDS, LinkedBlockingQueue(), threadFactory).apply {
+            this.allowCoreThreadTimeOut(true)
+        }
+    }
+
+    /**
+     * Amount of tasks waiting to run in each stripe, indexed by stripe.
+     */
+    val queueDepths: IntArray
+        get() = IntArray(this.stripes) { this.queueDepth(it) }
+
+    /**
+     * Gets the stripe which tasks of [key] run in.
+     */
+    fun stripeOf(key: Any?): Int {
+        val hash = key.hashCode()
+
+        return Math.floorMod(hash xor (hash ushr 16), this.stripes)
+    }
+
+    /**
+     * Amount of tasks waiting to run in [stripe], the task which is currently running is not included.
+     */
+    fun queueDepth(stripe: Int): Int =
+            this.workers[stripe].queue.size
+
+    /**
+     * Runs [command] after all tasks previously submitted with [key].
+     */
+    fun execute(key: Any?, command: Runnable) {
+        this.workers[this.stripeOf(key)].execute(command)
+    }
+
+    /**
+     * Runs [supplier] after all tasks previously submitted with [key].
+     *
+     * @return Future completed with value provided by [supplier].
+     */
+    fun <T> submit(key: Any?, supplier: Supplier<T>): CompletableFuture<T> =
+            CompletableFuture.supplyAsync(supplier, this.workers[this.stripeOf(key)])
+
+    /**
+     * Stops accepting tasks, already submitted tasks are still run.
+     */
+    fun shutdown() {
+        this.workers.forEach { it.shutdown() }
+    }
+}
+
+/**
+ * Extracts the ordering key of a dispatch to [KeyedOrderedExecutor], dispatches with same key
+ * are run serially, in dispatch order.
+ *
+ * The key could also be provided for a single dispatch through [ORDERING_KEY] in the [EnvironmentContext],
+ * which has precedence over the extractor.
+ */
+fun interface OrderingKeyExtractor {
+
+    /**
+     * Gets the ordering key of dispatch of [event] to [channel].
+     */
+    fun getKey(event: Event, eventType: Type, dispatcher: Any, channel: String): Any?
+
+    companion object {
+        /**
+         * Key of dispatch ordering key in [EnvironmentContext].
+         */
+        @JvmField
+        val ORDERING_KEY = typedKeyOf<Any>("ORDERING_KEY")
+
+        /**
+         * Uses the dispatch channel as ordering key.
+         */
+        @JvmField
+        val CHANNEL = OrderingKeyExtractor { _, _, _, channel -> channel }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.impl
+
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.EventListenerRegistry
+import com.github.koresframework.eventsys.event.ObservableEventListenerRegistry
+import com.github.koresframework.eventsys.gen.event.EventGenerator
+import com.github.koresframework.eventsys.logging.LoggerInterface
+import com.github.koresframework.eventsys.logging.MessageType
+import com.github.koresframework.eventsys.metrics.DispatchMetrics
+import com.github.koresframework.eventsys.metrics.NoOpDispatchMetrics
+import com.github.koresframework.eventsys.result.DispatchResult
+import com.github.koresframework.eventsys.result.ListenExecutionResult
+import java.lang.reflect.Type
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicIntegerArray
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * Event dispatcher which runs asynchronous dispatches in a fixed set of [consumer threads][consumers], fed
+ * by a preallocated ring buffer of [bufferSize] slots.
+ *
+ * Producers claim slots through a single atomic increment and publish the event and its [dispatch plan][DispatchPlan]
+ * into the claimed slot, no task nor thread is created for each dispatch. When the buffer is full, producers
+ * wait for consumers using the [waitStrategy]. Each consumer drains all published slots of its stride in batch,
+ * calling listeners sequentially with same [Cancellable][com.github.koresframework.eventsys.event.Cancellable]
+ * semantics of synchronous dispatch. Different events are dispatched concurrently by different consumers.
+ *
+ * Asynchronous [dispatch] still allocates a future for each listener result, [publish] should be used by
+ * producers which do not use results. Synchronous dispatches run in the caller thread.
+ *
+ * Asynchronous dispatches made by listeners running in consumer threads are not enqueued, they run inline in the
+ * consumer thread instead, because a consumer waiting for a free slot in a full buffer could be waiting for itself.
+ *
+ * Consumer threads run until [shutdown].
+ *
+ * @param bufferSize Amount of slots of ring buffer, must be a power of two greater than [consumers].
+ * @param consumers Amount of consumer threads.
+ * @param waitStrategy Strategy used by consumers waiting for events and by producers waiting for free slots.
+ * @param threadFactory Factory of consumer threads, creates daemon threads by default.
+ * @param cacheDispatchPlan Whether listeners of each event type and channel should be cached in a [DispatchPlanCache].
+ * Only takes effect if [eventListenerRegistry] is an [ObservableEventListenerRegistry].
+ * @param metrics Metrics which dispatches are reported to, queue wait is the time events wait in the ring buffer.
+ */
+class RingBufferEventDispatcher @JvmOverloads constructor(
+        override val eventGenerator: EventGenerator,
+        override val logger: LoggerInterface,
+        val eventListenerRegistry: EventListenerRegistry,
+        val bufferSize: Int = 1024,
+        val consumers: Int = 1,
+        private val waitStrategy: WaitStrategy = WaitStrategy.YIELDING,
+        threadFactory: ThreadFactory = DAEMON_THREAD_FACTORY,
+        cacheDispatchPlan: Boolean = true,
+        override val metrics: DispatchMetrics = NoOpDispatchMetrics
+) : AbstractEventDispatcher() {
+
+    init {
+        require(this.consumers > 0) { "Amount of consumers must be positive, provided: '${this.consumers}'." }
+        require(this.bufferSize > this.consumers && Integer.bitCount(this.bufferSize) == 1) {
+            "Buffer size must be a power of two greater than amount of consumers, provided: '${this.bufferSize}'."
+        }
+    }
+
+    /**
+     * Listeners are never submitted to an executor, all asynchronous dispatches go through the ring buffer.
+     */
+    override val executor: Executor = Executor { it.run() }
+
+    override val dispatchPlanCache: DispatchPlanCache? =
+            if (cacheDispatchPlan) DispatchPlanCache.observing(this.eventListenerRegistry, this::check)
+            else null
+
+    init {
+        this.observeRegistry(this.eventListenerRegistry)
+    }
+
+    private val mask = this.bufferSize - 1L
+    private val shift = Integer.numberOfTrailingZeros(this.bufferSize)
+    private val slots = Array(this.bufferSize) { Slot() }
+
+    /**
+     * Lap of the sequence published in each slot, a slot is available when it stores the lap of the sequence.
+     */
+    private val published = AtomicIntegerArray(this.bufferSize).also {
+        for (i in 0 until this.bufferSize) it.lazySet(i, -1)
+    }
+
+    /**
+     * Last claimed sequence.
+     */
+    private val cursor = AtomicLong(-1L)
+
+    /**
+     * Last sequence processed by each consumer, consumer `i` processes sequences `i`, `i + consumers`, and so on.
+     */
+    private val consumerSequences = Array(this.consumers) { AtomicLong(it - this.consumers.toLong()) }
+
+    /**
+     * Cached minimum of [consumerSequences], so producers only read all sequences when buffer seems full.
+     */
+    @Volatile
+    private var gatingSequence = -this.consumers.toLong()
+
+    @Volatile
+    private var running = true
+
+    /**
+     * Producers between the [running] check and the publication of their slot. Consumers only stop after
+     * [shutdown] once there is no producer in this window, so no claimed slot is left unprocessed.
+     */
+    private val producers = AtomicInteger()
+
+    private val liveConsumers = AtomicInteger(this.consumers)
+
+    private val consumerThreads = List(this.consumers) { threadFactory.newThread(Consumer(it)) }
+
+    init {
+        this.consumerThreads.forEach { it.start() }
+    }
+
+    override fun <T : Event> getListeners(event: T, eventType: Type, channel: String): Iterable<EventListenerContainer<*>> =
+            this.eventListenerRegistry.getListenersContainers(event, eventType, channel)
+
+    override fun <T : Event> dispatch(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            isAsync: Boolean,
+            ctx: EnvironmentContext
+    ): DispatchResult<T> {
+        if (!isAsync)
+            return super.dispatch(event, eventType, dispatcher, channel, false, ctx)
+
+        val plan = this.getDispatchPlan(event, eventType, channel)
+
+        if (plan.size == 0)
+            return DispatchResult(emptyList())
+
+        val results = List(plan.size) { CompletableFuture<ListenExecutionResult<T>>() }
+
+        this.enqueue(event, eventType, dispatcher, channel, ctx, plan, results, null)
+
+        return DispatchResult(results)
+    }
+
+    override fun <T : Event> dispatchOrderedAsync(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ): CompletableFuture<List<ListenExecutionResult<T>>> {
+        val plan = this.getDispatchPlan(event, eventType, channel)
+
+        if (plan.size == 0)
+            return CompletableFuture.completedFuture(emptyList())
+
+        val result = CompletableFuture<List<ListenExecutionResult<T>>>()
+
+        this.enqueue(event, eventType, dispatcher, channel, ctx, plan, null, result)
+
+        return result
+    }
+
+    /**
+     * Asynchronously dispatches [event] to all listeners which listen to [event] in [channel], without
+     * collecting results. Listener failures are only reported to the logger.
+     *
+     * Only the ring buffer slot is written, no object is allocated when the [dispatch plan][DispatchPlan] is cached.
+     */
+    fun <T : Event> publish(
+            event: T,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext
+    ) {
+        val plan = this.getDispatchPlan(event, eventType, channel)
+
+        if (plan.size != 0)
+            this.enqueue(event, eventType, dispatcher, channel, ctx, plan, null, null)
+    }
+
+    /**
+     * Stops accepting dispatches, consumers stop after dispatching all already published events and all events
+     * being published concurrently with the shutdown.
+     */
+    fun shutdown() {
+        this.running = false
+    }
+
+    /**
+     * Waits up to [timeout] for consumers to stop after [shutdown].
+     *
+     * @return Whether all consumers stopped.
+     */
+    fun awaitTermination(timeout: Long, unit: TimeUnit): Boolean {
+        val deadline = System.nanoTime() + unit.toNanos(timeout)
+
+        for (thread in this.consumerThreads) {
+            val remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())
+
+            if (remaining <= 0)
+                break
+
+            thread.join(remaining)
+        }
+
+        return this.liveConsumers.get() == 0
+    }
+
+    private fun enqueue(
+            event: Event,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext,
+            plan: DispatchPlan,
+            results: List<CompletableFuture<*>>?,
+            ordered: CompletableFuture<*>?
+    ) {
+        this.producers.incrementAndGet()
+
+        try {
+            // Checked after registering as producer, so consumers which saw no producer after shutdown
+            // also see this producer rejected
+            if (!this.running)
+                throw RejectedExecutionException("Dispatcher is shutdown.")
+
+            if (Thread.currentThread() in this.consumerThreads) {
+                this.execute(event, eventType, dispatcher, channel, ctx, plan, results, ordered, 0L)
+                return
+            }
+
+            val sequence = this.claim()
+            val index = (sequence and this.mask).toInt()
+            val slot = this.slots[index]
+
+            slot.event = event
+            slot.eventType = eventType
+            slot.dispatcher = dispatcher
+            slot.channel = channel
+            slot.ctx = ctx
+            slot.plan = plan
+            slot.results = results
+            slot.ordered = ordered
+            slot.queuedAt = this.queuedAt()
+
+            this.published.lazySet(index, (sequence ushr this.shift).toInt())
+        } finally {
+            this.producers.decrementAndGet()
+        }
+    }
+
+    /**
+     * Claims the next sequence, waiting for consumers to free the slot if the buffer is full.
+     */
+    private fun claim(): Long {
+        if (this.liveConsumers.get() == 0)
+            throw RejectedExecutionException("Dispatcher is terminated.")
+
+        val sequence = this.cursor.incrementAndGet()
+        val wrapPoint = sequence - this.bufferSize
+        var iteration = 0
+
+        while (wrapPoint > this.gatingSequence) {
+            val gating = this.consumerSequences.minOf { it.get() }
+            this.gatingSequence = gating
+
+            if (wrapPoint > gating) {
+                if (this.liveConsumers.get() == 0)
+                    throw RejectedExecutionException("Dispatcher is terminated.")
+
+                this.waitStrategy.idle(iteration++)
+            }
+        }
+
+        return sequence
+    }
+
+    private fun isPublished(sequence: Long): Boolean =
+            this.published.get((sequence and this.mask).toInt()) == (sequence ushr this.shift).toInt()
+
+    private fun process(slot: Slot) {
+        val event = slot.event!!
+        val eventType = slot.eventType!!
+        val dispatcher = slot.dispatcher!!
+        val channel = slot.channel!!
+        val ctx = slot.ctx!!
+        val plan = slot.plan!!
+        val results = slot.results
+        val ordered = slot.ordered
+        val queueNanos = this.queueNanos(slot.queuedAt)
+
+        slot.clear()
+
+        this.execute(event, eventType, dispatcher, channel, ctx, plan, results, ordered, queueNanos)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun execute(
+            event: Event,
+            eventType: Type,
+            dispatcher: Any,
+            channel: String,
+            ctx: EnvironmentContext,
+            plan: DispatchPlan,
+            results: List<CompletableFuture<*>>?,
+            ordered: CompletableFuture<*>?,
+            queueNanos: Long
+    ) {
+        if (results == null && ordered == null) {
+            this.post(plan, event, eventType, dispatcher, channel, ctx, queueNanos)
+            return
+        }
+
+        try {
+            val executed = this.dispatchOrdered(plan, event, eventType, dispatcher, channel, ctx, queueNanos)
+
+            results?.forEachIndexed { i, result -> (result as CompletableFuture<Any?>).complete(executed[i]) }
+            (ordered as CompletableFuture<Any?>?)?.complete(executed)
+        } catch (throwable: Throwable) {
+            results?.forEach { it.completeExceptionally(throwable) }
+            ordered?.completeExceptionally(throwable)
+        }
+    }
+
+    /**
+     * Processes [slot], reporting anything thrown to the logger instead of stopping the consumer, a stopped consumer
+     * would never free its slots and producers would wait for them forever. Futures of the slot are completed
+     * exceptionally, so callers waiting for the results are not left waiting forever either.
+     */
+    private fun processSafely(slot: Slot) {
+        val results = slot.results
+        val ordered = slot.ordered
+
+        try {
+            this.process(slot)
+        } catch (throwable: Throwable) {
+            slot.clear()
+            results?.forEach { it.completeExceptionally(throwable) }
+            ordered?.completeExceptionally(throwable)
+
+            try {
+                this.logger.log("Failed to process ring buffer slot.", MessageType.STANDARD_ERROR, throwable, EnvironmentContext())
+            } catch (ignored: Throwable) {
+                // The logger itself failed, nothing else can report it
+            }
+        }
+    }
+
+    private inner class Consumer(private val index: Int) : Runnable {
+
+        override fun run() {
+            val consumers = this@RingBufferEventDispatcher.consumers
+            val sequence = this@RingBufferEventDispatcher.consumerSequences[this.index]
+            var next = sequence.get() + consumers
+            var iteration = 0
+
+            try {
+                while (true) {
+                    if (isPublished(next)) {
+                        iteration = 0
+
+                        // Drains all published slots of this consumer before freeing them for producers
+                        do {
+                            processSafely(slots[(next and mask).toInt()])
+                            next += consumers
+                        } while (isPublished(next))
+
+                        sequence.lazySet(next - consumers)
+                    } else if (!running && producers.get() == 0 && next > cursor.get()) {
+                        // No producer could claim a sequence after this point
+                        break
+                    } else {
+                        waitStrategy.idle(iteration++)
+                    }
+                }
+            } finally {
+                liveConsumers.decrementAndGet()
+            }
+        }
+    }
+
+    private class Slot {
+        @JvmField var event: Event? = null
+        @JvmField var eventType: Type? = null
+        @JvmField var dispatcher: Any? = null
+        @JvmField var channel: String? = null
+        @JvmField var ctx: EnvironmentContext? = null
+        @JvmField var plan: DispatchPlan? = null
+        @JvmField var results: List<CompletableFuture<*>>? = null
+        @JvmField var ordered: CompletableFuture<*>? = null
+        @JvmField var queuedAt: Long = 0L
+
+        fun clear() {
+            this.event = null
+            this.eventType = null
+            this.dispatcher = null
+            this.channel = null
+            this.ctx = null
+            this.plan = null
+            this.results = null
+            this.ordered = null
+        }
+    }
+
+    companion object {
+        private val THREAD_COUNTER = AtomicInteger()
+
+        private val DAEMON_THREAD_FACTORY = ThreadFactory {
+            Thread(it, "EventSys-RingBuffer-${THREAD_COUNTER.incrementAndGet()}").apply {
+                this.isDaemon = true
+            }
+        }
+    }
+}
+
+/**
+ * Strategy used by [RingBufferEventDispatcher] to wait for events or for free slots.
+ */
+fun interface WaitStrategy {
+
+    /**
+     * Waits once, [iteration] is the amount of times waited without progress.
+     */
+    fun idle(iteration: Int)
+
+    companion object {
+        /**
+         * Spins without releasing the processor, lowest latency at the cost of a processor for each waiting thread.
+         */
+        @JvmField
+        val BUSY_SPIN = WaitStrategy { }
+
+        /**
+         * Spins for a while and then yields the processor to other threads.
+         */
+        @JvmField
+        val YIELDING = WaitStrategy {
+            if (it >= SPIN_ITERATIONS) Thread.yield()
+        }
+
+        /**
+         * Spins for a while, yields for a while and then parks the thread for [parkNanos].
+         */
+        @JvmStatic
+        fun parking(parkNanos: Long): WaitStrategy = WaitStrategy {
+            when {
+                it < SPIN_ITERATIONS -> Unit
+                it < SPIN_ITERATIONS * 2 -> Thread.yield()
+                else -> LockSupport.parkNanos(parkNanos)
+            }
+        }
+
+        /**
+         * Parks the thread for 100 microseconds after spinning and yielding, lowest processor usage
+         * at the cost of latency.
+         */
+        @JvmField
+        val PARKING = parking(100_000L)
+    }
+}
+
+private const val SPIN_ITERATIONS = 100
@@ -76,6 +76,11 @@ enum class MessageType(val level: Level) {
      */
     EXCEPTION_IN_LISTENER(Level.WARN),
 
+    /**
+     * Generated class cache could not be read or written, the class is generated instead.
+     */
+    GENERATION_CACHE_FAILURE(Level.DEBUG),
+
     /**
      * Standard warning.
      */
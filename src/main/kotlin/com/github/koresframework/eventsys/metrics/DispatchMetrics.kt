@@ -0,0 +1,94 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.metrics
+
+import com.github.koresframework.eventsys.impl.EventListenerContainer
+import java.lang.reflect.Type
+
+/**
+ * Receives metrics of event dispatches from [dispatchers][com.github.koresframework.eventsys.impl.AbstractEventDispatcher].
+ *
+ * Methods are called in dispatch threads, concurrently, so implementations must be thread-safe and fast.
+ *
+ * @see NoOpDispatchMetrics
+ * @see InMemoryDispatchMetrics
+ */
+interface DispatchMetrics {
+
+    /**
+     * Whether metrics should be collected, when `false`, dispatchers does not measure dispatches.
+     */
+    val isEnabled: Boolean
+        get() = true
+
+    /**
+     * Called when listeners of a dispatch of [eventType] to [channel] are resolved, [fanOut] is the amount of listeners
+     * which the event is dispatched to.
+     */
+    fun onDispatch(eventType: Type, channel: String, fanOut: Int)
+
+    /**
+     * Called after [container] listener is invoked.
+     *
+     * @param queueNanos Time the dispatch waited in the asynchronous queue before running, `0` for synchronous dispatches.
+     * @param executionNanos Time the listener took to run.
+     * @param failed Whether the listener failed, by throwing an exception or by returning a failure.
+     */
+    fun onListenerInvoked(container: EventListenerContainer<*>,
+                          eventType: Type,
+                          queueNanos: Long,
+                          executionNanos: Long,
+                          failed: Boolean)
+
+    /**
+     * Called when [container] listener is not invoked because the event was cancelled.
+     */
+    fun onListenerSkipped(container: EventListenerContainer<*>, eventType: Type)
+}
+
+/**
+ * Disabled metrics, the default of dispatchers.
+ */
+object NoOpDispatchMetrics : DispatchMetrics {
+
+    override val isEnabled: Boolean
+        get() = false
+
+    override fun onDispatch(eventType: Type, channel: String, fanOut: Int) {
+    }
+
+    override fun onListenerInvoked(container: EventListenerContainer<*>,
+                                   eventType: Type,
+                                   queueNanos: Long,
+                                   executionNanos: Long,
+                                   failed: Boolean) {
+    }
+
+    override fun onListenerSkipped(container: EventListenerContainer<*>, eventType: Type) {
+    }
+}
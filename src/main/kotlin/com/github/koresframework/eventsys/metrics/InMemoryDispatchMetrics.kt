@@ -0,0 +1,217 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.metrics
+
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.event.EventListenerRegistryObserver
+import com.github.koresframework.eventsys.impl.EventListenerContainer
+import java.lang.reflect.Type
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * [DispatchMetrics] which keeps metrics in memory, per [listener][EventListenerContainer] and per event type.
+ *
+ * Metrics are accumulated since creation or last [reset], and can be inspected with [listeners], [eventTypes]
+ * and [slowestListeners].
+ *
+ * Metrics of a listener are discarded when it is unregistered, dispatchers add these metrics as
+ * [observer][EventListenerRegistryObserver] of [observable registries][com.github.koresframework.eventsys.event.ObservableEventListenerRegistry],
+ * otherwise metrics keep unregistered listeners (and their owners) reachable until [reset].
+ */
+class InMemoryDispatchMetrics : DispatchMetrics, EventListenerRegistryObserver {
+
+    private val listenerMetrics = ConcurrentHashMap<EventListener<*>, ListenerMetrics>()
+    private val eventTypeMetrics = ConcurrentHashMap<Type, EventTypeMetrics>()
+
+    @Volatile
+    private var since = System.nanoTime()
+
+    override fun onDispatch(eventType: Type, channel: String, fanOut: Int) {
+        this.eventTypeMetrics.computeIfAbsent(eventType, ::EventTypeMetrics).record(fanOut)
+    }
+
+    override fun onListenerInvoked(container: EventListenerContainer<*>,
+                                   eventType: Type,
+                                   queueNanos: Long,
+                                   executionNanos: Long,
+                                   failed: Boolean) {
+        val metrics = this.metricsOf(container)
+
+        metrics.invocations.increment()
+        metrics.execution.record(executionNanos)
+
+        if (queueNanos > 0L)
+            metrics.queueWait().record(queueNanos)
+
+        if (failed)
+            metrics.failures.increment()
+    }
+
+    override fun onListenerSkipped(container: EventListenerContainer<*>, eventType: Type) {
+        this.metricsOf(container).cancelledSkips.increment()
+    }
+
+    override fun onRegister(container: EventListenerContainer<*>) {
+    }
+
+    override fun onUnregister(container: EventListenerContainer<*>) {
+        this.listenerMetrics.remove(container.eventListener)
+    }
+
+    private fun metricsOf(container: EventListenerContainer<*>): ListenerMetrics =
+            this.listenerMetrics[container.eventListener]
+                    ?: this.listenerMetrics.computeIfAbsent(container.eventListener) { ListenerMetrics(container) }
+
+    /**
+     * Snapshot of metrics of [container], or `null` if it was never dispatched.
+     */
+    fun listener(container: EventListenerContainer<*>): ListenerSnapshot? =
+            this.listenerMetrics[container.eventListener]?.snapshot()
+
+    /**
+     * Snapshots of metrics of all dispatched listeners.
+     */
+    fun listeners(): List<ListenerSnapshot> =
+            this.listenerMetrics.values.map(ListenerMetrics::snapshot)
+
+    /**
+     * Snapshots of metrics of all dispatched event types.
+     */
+    fun eventTypes(): List<EventTypeSnapshot> {
+        val elapsed = System.nanoTime() - this.since
+
+        return this.eventTypeMetrics.values.map { it.snapshot(elapsed) }
+    }
+
+    /**
+     * Top [n] listeners with highest execution time at [percentile] (from `0.0` to `100.0`), slowest first.
+     */
+    @JvmOverloads
+    fun slowestListeners(n: Int, percentile: Double = 99.0): List<ListenerSnapshot> {
+        require(n >= 0) { "n must not be negative." }
+
+        return this.listeners()
+                .sortedByDescending { it.execution.percentile(percentile) }
+                .take(n)
+    }
+
+    /**
+     * Discards all collected metrics.
+     */
+    fun reset() {
+        this.listenerMetrics.clear()
+        this.eventTypeMetrics.clear()
+        this.since = System.nanoTime()
+    }
+
+    private class ListenerMetrics(val container: EventListenerContainer<*>) {
+        val invocations = LongAdder()
+        val failures = LongAdder()
+        val cancelledSkips = LongAdder()
+        val execution = LatencyHistogram()
+
+        /**
+         * Only allocated by the first asynchronous dispatch, listeners which are only dispatched synchronously
+         * never wait in queue.
+         */
+        @Volatile
+        private var queueWait: LatencyHistogram? = null
+
+        fun queueWait(): LatencyHistogram =
+                this.queueWait ?: synchronized(this) {
+                    this.queueWait ?: LatencyHistogram().also { this.queueWait = it }
+                }
+
+        fun snapshot() = ListenerSnapshot(
+                this.container,
+                this.invocations.sum(),
+                this.failures.sum(),
+                this.cancelledSkips.sum(),
+                this.execution.snapshot(),
+                this.queueWait?.snapshot() ?: LatencyHistogram.EMPTY_SNAPSHOT
+        )
+    }
+
+    private class EventTypeMetrics(val eventType: Type) {
+        val dispatches = LongAdder()
+        val fanOut = LongAdder()
+        val maxFanOut = AtomicInteger()
+
+        fun record(fanOut: Int) {
+            this.dispatches.increment()
+            this.fanOut.add(fanOut.toLong())
+            this.maxFanOut.accumulateAndGet(fanOut) { current, new -> Math.max(current, new) }
+        }
+
+        fun snapshot(elapsedNanos: Long): EventTypeSnapshot {
+            val dispatches = this.dispatches.sum()
+            val seconds = elapsedNanos.toDouble() / TimeUnit.SECONDS.toNanos(1)
+
+            return EventTypeSnapshot(
+                    this.eventType,
+                    dispatches,
+                    if (seconds > 0.0) dispatches / seconds else 0.0,
+                    if (dispatches == 0L) 0.0 else this.fanOut.sum().toDouble() / dispatches,
+                    this.maxFanOut.get()
+            )
+        }
+    }
+
+    /**
+     * Metrics of a listener.
+     *
+     * @property invocations Amount of times the listener was invoked.
+     * @property failures Amount of invocations which failed.
+     * @property cancelledSkips Amount of times the listener was skipped because the event was cancelled.
+     * @property execution Execution time of the listener.
+     * @property queueWait Time asynchronous dispatches waited in queue before the listener was invoked.
+     */
+    data class ListenerSnapshot(val container: EventListenerContainer<*>,
+                                val invocations: Long,
+                                val failures: Long,
+                                val cancelledSkips: Long,
+                                val execution: LatencyHistogram.Snapshot,
+                                val queueWait: LatencyHistogram.Snapshot)
+
+    /**
+     * Metrics of an event type.
+     *
+     * @property dispatches Amount of dispatches of the event type.
+     * @property dispatchesPerSecond Mean dispatch rate since metrics started.
+     * @property meanFanOut Mean amount of listeners which the event was dispatched to.
+     * @property maxFanOut Highest amount of listeners which the event was dispatched to.
+     */
+    data class EventTypeSnapshot(val eventType: Type,
+                                 val dispatches: Long,
+                                 val dispatchesPerSecond: Double,
+                                 val meanFanOut: Double,
+                                 val maxFanOut: Int)
+}
@@ -0,0 +1,150 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.metrics
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with fixed memory.
+ *
+ * Values are recorded in log-linear buckets, like HDR histograms: each power of two range is split in
+ * [SUB_BUCKETS] linear buckets, so recorded values are kept with a relative error lower than `1 / SUB_BUCKETS`.
+ * Recording is a single atomic increment of the bucket, plus the sum and max updates.
+ */
+class LatencyHistogram {
+
+    private val counts = AtomicLongArray(BUCKETS)
+    private val total = LongAdder()
+    private val max = AtomicLong()
+
+    /**
+     * Records a latency of [nanos], negative values are recorded as `0`.
+     */
+    fun record(nanos: Long) {
+        val value = if (nanos < 0L) 0L else nanos
+
+        this.counts.incrementAndGet(indexOf(value))
+        this.total.add(value)
+
+        var current = this.max.get()
+
+        while (value > current && !this.max.compareAndSet(current, value))
+            current = this.max.get()
+    }
+
+    /**
+     * Creates an immutable snapshot of recorded values. Concurrently recorded values may be partially included.
+     */
+    fun snapshot(): Snapshot {
+        val counts = LongArray(BUCKETS) { this.counts.get(it) }
+
+        return Snapshot(counts, counts.sum(), this.total.sum(), this.max.get())
+    }
+
+    /**
+     * Immutable snapshot of a [LatencyHistogram].
+     *
+     * @property count Amount of recorded values.
+     * @property totalNanos Sum of recorded values.
+     * @property maxNanos Highest recorded value.
+     */
+    class Snapshot internal constructor(private val counts: LongArray,
+                                        val count: Long,
+                                        val totalNanos: Long,
+                                        val maxNanos: Long) {
+
+        /**
+         * Mean of recorded values, `0` if there is no recorded value.
+         */
+        val meanNanos: Double
+            get() = if (this.count == 0L) 0.0 else this.totalNanos.toDouble() / this.count
+
+        /**
+         * Gets the value which [percentile] (from `0.0` to `100.0`) of recorded values are lower than or equal to.
+         * The value is the lowest value of the bucket, or [maxNanos] for the highest bucket.
+         */
+        fun percentile(percentile: Double): Long {
+            if (this.count == 0L)
+                return 0L
+
+            val rank = Math.max(1L, Math.ceil(percentile.coerceIn(0.0, 100.0) / 100.0 * this.count).toLong())
+            var seen = 0L
+
+            for (i in this.counts.indices) {
+                seen += this.counts[i]
+
+                if (seen >= rank)
+                    return if (seen == this.count) this.maxNanos else Math.min(valueOf(i), this.maxNanos)
+            }
+
+            return this.maxNanos
+        }
+
+        override fun toString(): String =
+                "LatencyHistogram.Snapshot[count=$count, mean=$meanNanos, p50=${percentile(50.0)}, " +
+                        "p99=${percentile(99.0)}, max=$maxNanos]"
+    }
+
+    companion object {
+        /**
+         * Linear buckets of each power of two range.
+         */
+        const val SUB_BUCKETS = 8
+
+        private const val SUB_BUCKET_BITS = 3
+        private const val BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS
+
+        /**
+         * Snapshot of a histogram without recorded values.
+         */
+        @JvmField
+        val EMPTY_SNAPSHOT = Snapshot(LongArray(BUCKETS), 0L, 0L, 0L)
+
+        private fun indexOf(value: Long): Int {
+            if (value < SUB_BUCKETS)
+                return value.toInt()
+
+            val magnitude = 63 - java.lang.Long.numberOfLeadingZeros(value)
+            val subBucket = (value ushr (magnitude - SUB_BUCKET_BITS)).toInt() and (SUB_BUCKETS - 1)
+
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket
+        }
+
+        private fun valueOf(index: Int): Long {
+            if (index < SUB_BUCKETS)
+                return index.toLong()
+
+            val magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1
+            val subBucket = index % SUB_BUCKETS
+
+            return (SUB_BUCKETS + subBucket).toLong() shl (magnitude - SUB_BUCKET_BITS)
+        }
+    }
+}
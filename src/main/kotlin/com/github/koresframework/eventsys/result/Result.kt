@@ -28,6 +28,7 @@
 package com.github.koresframework.eventsys.result
 
 import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.error.DispatchRejectedError
 import com.github.koresframework.eventsys.error.ListenError
 import com.github.koresframework.eventsys.impl.EventListenerContainer
 import java.lang.reflect.Type
@@ -61,6 +62,16 @@ data class DispatchResult<out T>(val listenExecutionResults: List<CompletableFut
                 listenExecutionResults.map { it.join() }
             }
 
+    /**
+     * Results of listeners which were not called because the asynchronous dispatch was rejected by the
+     * executor, see [DispatchRejectedError]. Only already completed results are included.
+     */
+    val rejected: List<ListenExecutionResult<T>>
+        get() = this.listenExecutionResults
+                .filter { it.isDone && !it.isCompletedExceptionally }
+                .map { it.join() }
+                .filter { (it.result as? ListenResult.Failed)?.error is DispatchRejectedError }
+
     /**
      * Returns a new [DispatchResult] which combines results of this data object and results of [other].
      */
@@ -117,7 +128,16 @@ sealed class ListenResult {
     /**
      * Result in a [value].
      */
-    data class Value(val value: Any) : ListenResult()
+    data class Value(val value: Any) : ListenResult() {
+        companion object {
+            /**
+             * Success result with a meaningless value, shared to avoid allocation of results
+             * of listeners which does not return values.
+             */
+            @JvmField
+            val UNIT = Value(Unit)
+        }
+    }
 
     /**
      * Result in [error].
@@ -128,7 +148,7 @@ sealed class ListenResult {
 /**
  * Creates a success result with a meaningless value.
  */
-fun success() = ListenResult.Value(Unit)
+fun success() = ListenResult.Value.UNIT
 
 /**
  * Creates a success result with meaningful [value].
@@ -38,50 +38,173 @@ import com.github.jonathanxd.kores.base.SuperClassHolder
 import com.github.jonathanxd.kores.base.TypeDeclaration
 import com.github.jonathanxd.kores.type.*
 import com.github.koresframework.eventsys.reflect.isEqual
+import java.lang.reflect.Method
 import java.lang.reflect.Type
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
 
+/**
+ * Thread-safe cache of [type declarations][TypeDeclaration], their methods and inner classes.
+ *
+ * Methods are indexed by signature and by name, so [method lookup][hasMethod] and [getter][getGetter] and
+ * [setter][getSetter] lookup do not scan all methods of the hierarchy.
+ */
 class DeclarationCache {
 
-    private val cache = mutableMapOf<KoresType, TypeDeclaration>()
-    private val mcache = mutableMapOf<TypeDeclaration, List<DeclaredMethod>>()
-    private val scache = mutableMapOf<TypeDeclaration, List<TypeDeclaration>>()
+    private val cache = ConcurrentHashMap<KoresType, TypeDeclaration>()
+    private val mcache = ConcurrentHashMap<TypeDeclaration, MethodIndex>()
+    private val scache = ConcurrentHashMap<TypeDeclaration, List<TypeDeclaration>>()
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
 
-    fun has(type: Type) = this.cache.contains(type.koresType)
+    /**
+     * Hit and miss count of this cache.
+     */
+    val statistics: Statistics
+        get() = Statistics(this.hits.get(), this.misses.get())
+
+    fun has(type: Type) = this.cache.containsKey(type.koresType)
 
     operator fun get(type: Type): TypeDeclaration =
-        cache.computeIfAbsent(type.koresType) {
+        this.cached(this.cache, type.koresType) {
             it.concreteType.bindedDefaultResolver.resolveTypeDeclaration().rightOrFail
         }
 
     fun getMethods(typeDeclaration: TypeDeclaration): List<DeclaredMethod> =
-        this.mcache.computeIfAbsent(typeDeclaration) {
-            it.allMethods
-        }
+        this.methodIndex(typeDeclaration).methods
 
     fun getInnerClasses(typeDeclaration: TypeDeclaration): List<TypeDeclaration> =
-        this.scache.computeIfAbsent(typeDeclaration) {
+        this.cached(this.scache, typeDeclaration) {
             it.allInner
         }
 
     fun getMethods(type: Type): List<DeclaredMethod> = this[type].run(this::getMethods)
     fun getInnerClasses(type: Type): List<TypeDeclaration> = this[type].run(this::getInnerClasses)
-}
 
-private val TypeDeclaration.allMethods: List<DeclaredMethod>
-    get() {
-        val metds = mutableListOf<DeclaredMethod>()
+    /**
+     * Checks whether [typeDeclaration] or any of its super types declares a method equal to [method].
+     */
+    fun hasMethod(typeDeclaration: TypeDeclaration, method: MethodDeclaration): Boolean =
+        this.methodIndex(typeDeclaration).find(method) != null
 
-        this.forAllTypes {
-            this.methods.map {
-                val declared = DeclaredMethod(this, it)
+    fun hasMethod(type: Type, method: MethodDeclaration): Boolean = this.hasMethod(this[type], method)
+
+    /**
+     * Finds the declaration of [method] in [typeDeclaration] hierarchy, declarations of [typeDeclaration] come first.
+     */
+    fun findMethod(typeDeclaration: TypeDeclaration, method: Method): MethodDeclaration? =
+        this.methodIndex(typeDeclaration).find(method)?.methodDeclaration
+
+    fun findMethod(type: Type, method: Method): MethodDeclaration? = this.findMethod(this[type], method)
+
+    /**
+     * Finds the first getter (`getName` or `isName`) of property [name] declared in [typeDeclaration] hierarchy.
+     */
+    fun getGetter(typeDeclaration: TypeDeclaration, name: String): MethodDeclaration? {
+        val capitalized = name.capitalize()
+        val index = this.methodIndex(typeDeclaration)
+
+        val position = listOfNotNull(
+            index.byName["get$capitalized"]?.firstOrNull(),
+            index.byName["is$capitalized"]?.firstOrNull()
+        ).minOrNull() ?: return null
+
+        return index.methods[position].methodDeclaration
+    }
+
+    /**
+     * Finds the first setter of property [name] of [propertyType] declared in [typeDeclaration] hierarchy.
+     */
+    fun getSetter(typeDeclaration: TypeDeclaration, name: String, propertyType: Type): MethodDeclaration? {
+        val index = this.methodIndex(typeDeclaration)
+
+        return index.byName["set${name.capitalize()}"].orEmpty()
+            .map { index.methods[it].methodDeclaration }
+            .firstOrNull { it.parameters.singleOrNull()?.type?.`is`(propertyType) == true }
+    }
 
-                if (metds.none { (_, it) -> it.isEqual(declared.methodDeclaration) })
-                    metds += declared
+    /**
+     * Removes cached declaration of [type], its methods and inner classes.
+     */
+    fun invalidate(type: Type) {
+        val declaration = this.cache.remove(type.koresType) ?: return
+
+        this.mcache.remove(declaration)
+        this.scache.remove(declaration)
+    }
+
+    private fun methodIndex(typeDeclaration: TypeDeclaration): MethodIndex =
+        this.cached(this.mcache, typeDeclaration) {
+            MethodIndex.of(it)
+        }
+
+    private fun <K, V> cached(map: ConcurrentHashMap<K, V>, key: K, compute: (K) -> V): V {
+        val value = map[key]
+
+        if (value != null) {
+            this.hits.incrementAndGet()
+            return value
+        }
+
+        this.misses.incrementAndGet()
+
+        return map.computeIfAbsent(key, compute)
+    }
+
+    data class Statistics(val hits: Long, val misses: Long)
+
+    /**
+     * Methods of a type hierarchy, indexed by [signature][SignatureKey] and by name (to position in [methods]).
+     */
+    private class MethodIndex(
+        val methods: List<DeclaredMethod>,
+        val bySignature: Map<SignatureKey, List<DeclaredMethod>>,
+        val byName: Map<String, List<Int>>
+    ) {
+
+        fun find(method: MethodDeclaration): DeclaredMethod? =
+            this.bySignature[SignatureKey.of(method)]?.firstOrNull { (_, it) -> it.isEqual(method) }
+
+        fun find(method: Method): DeclaredMethod? =
+            this.bySignature[SignatureKey(method.name, method.parameterCount)]?.firstOrNull { (_, it) -> it.isEqual(method) }
+
+        companion object {
+            fun of(typeDeclaration: TypeDeclaration): MethodIndex {
+                val all = mutableListOf<DeclaredMethod>()
+                val bySignature = mutableMapOf<SignatureKey, MutableList<DeclaredMethod>>()
+                val byName = mutableMapOf<String, MutableList<Int>>()
+
+                typeDeclaration.forAllTypes {
+                    this.methods.forEach {
+                        val bucket = bySignature.getOrPut(SignatureKey.of(it)) { mutableListOf() }
+
+                        if (bucket.none { (_, m) -> m.isEqual(it) }) {
+                            val declared = DeclaredMethod(this, it)
+
+                            bucket += declared
+                            byName.getOrPut(it.name) { mutableListOf() } += all.size
+                            all += declared
+                        }
+                    }
+                }
+
+                return MethodIndex(all, bySignature, byName)
             }
         }
+    }
 
-        return metds
+    /**
+     * Hash key of a method signature, methods which are [equal][isEqual] always have the same key. Only
+     * overloads with same arity shares a key.
+     */
+    private data class SignatureKey(val name: String, val arity: Int) {
+        companion object {
+            fun of(method: MethodDeclaration) =
+                SignatureKey(method.name, method.parameters.size)
+        }
     }
+}
 
 private val TypeDeclaration.allInner: List<TypeDeclaration>
     get() {
@@ -0,0 +1,122 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util
+
+import com.github.koresframework.eventsys.impl.BoundedExecutor
+import java.lang.reflect.Method
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ThreadFactory
+
+/**
+ * Strategy which creates the executor of asynchronous work of EventSys components, such as
+ * asynchronous dispatch of [CommonEventDispatcher][com.github.koresframework.eventsys.impl.CommonEventDispatcher]
+ * and asynchronous generation of [CommonEventGenerator][com.github.koresframework.eventsys.gen.event.CommonEventGenerator].
+ */
+fun interface ExecutorStrategy {
+
+    /**
+     * Creates the executor, [threadFactory] is the factory configured in the component, strategies which
+     * does not run tasks in platform threads ignores it.
+     */
+    fun createExecutor(threadFactory: ThreadFactory): Executor
+
+    companion object {
+        /**
+         * Whether the running JVM supports virtual threads (Java 21+).
+         */
+        @JvmField
+        val VIRTUAL_THREADS_AVAILABLE = newVirtualThreadPerTaskExecutor != null
+
+        /**
+         * Unbounded cached thread pool, threads are created on demand and reused while alive.
+         */
+        @JvmField
+        val CACHED = ExecutorStrategy { Executors.newCachedThreadPool(it) }
+
+        /**
+         * Runs each task in a new virtual thread when the JVM supports them (see [VIRTUAL_THREADS_AVAILABLE]),
+         * otherwise, uses [CACHED] strategy.
+         *
+         * Recommended for listeners which blocks on I/O, since blocked virtual threads does not hold platform threads.
+         */
+        @JvmField
+        val VIRTUAL_THREADS = virtualThreadsOr(CACHED)
+
+        /**
+         * Work-stealing [ForkJoinPool] with parallelism of the amount of available processors. Tasks are run
+         * concurrently and idle workers steal queued tasks from other workers, so there is no guarantee of execution
+         * order, not even of submission order. Workers are the pool daemon threads.
+         *
+         * Recommended for short and non-blocking listeners.
+         */
+        @JvmField
+        val WORK_STEALING = ExecutorStrategy { Executors.newWorkStealingPool() }
+
+        /**
+         * Runs tasks in the thread which submitted it, asynchronous work becomes synchronous. Useful for tests.
+         */
+        @JvmField
+        val CALLER_RUNS = ExecutorStrategy { Executor { task -> task.run() } }
+
+        /**
+         * Runs each task in a new virtual thread when the JVM supports them, otherwise uses [fallback].
+         */
+        @JvmStatic
+        fun virtualThreadsOr(fallback: ExecutorStrategy): ExecutorStrategy {
+            val factory = newVirtualThreadPerTaskExecutor ?: return fallback
+
+            return ExecutorStrategy { factory.invoke(null) as ExecutorService }
+        }
+
+        /**
+         * Creates [BoundedExecutors][BoundedExecutor] with [threads] threads and a queue of [capacity] tasks.
+         */
+        @JvmStatic
+        fun bounded(threads: Int, capacity: Int, policy: OverloadPolicy): ExecutorStrategy =
+                ExecutorStrategy { BoundedExecutor(threads, capacity, policy, it) }
+
+        /**
+         * Uses the provided [executor].
+         */
+        @JvmStatic
+        fun of(executor: Executor): ExecutorStrategy =
+                ExecutorStrategy { executor }
+    }
+}
+
+/**
+ * `Executors.newVirtualThreadPerTaskExecutor()`, only present in Java 21+.
+ */
+private val newVirtualThreadPerTaskExecutor: Method? = try {
+    Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor")
+} catch (e: NoSuchMethodException) {
+    null
+}
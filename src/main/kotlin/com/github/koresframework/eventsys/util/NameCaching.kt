@@ -27,19 +27,11 @@
  */
 package com.github.koresframework.eventsys.util
 
-import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ConcurrentHashMap
 
 class NameCaching {
 
-    private val nameCache: MutableList<String> = CopyOnWriteArrayList()
+    private val nameCache: MutableSet<String> = ConcurrentHashMap.newKeySet()
 
-    fun cache(name: String): Boolean {
-        synchronized(nameCache) {
-            if (!nameCache.contains(name)) {
-                nameCache.add(name)
-                return true
-            }
-            return false
-        }
-    }
-}
\ No newline at end of file
+    fun cache(name: String): Boolean = this.nameCache.add(name)
+}
@@ -0,0 +1,81 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util
+
+import java.util.concurrent.RejectedExecutionException
+
+/**
+ * Policy applied by [bounded executors][com.github.koresframework.eventsys.impl.BoundedExecutor] when the queue is full.
+ */
+enum class OverloadPolicy {
+    /**
+     * Blocks the producer until there is space in the queue.
+     */
+    BLOCK,
+
+    /**
+     * Runs the task in the producer thread.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Rejects the oldest queued [RejectableTask] and queues the new task. Fails like [FAIL] if no queued task
+     * is rejectable.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Rejects the new task. Fails like [FAIL] if the new task is not a [RejectableTask].
+     */
+    DROP_NEWEST,
+
+    /**
+     * Fails the submission with a [RejectedExecutionException]. Asynchronous dispatches reject the listener and all
+     * listeners which were not submitted yet, ordered asynchronous dispatches reject all listeners.
+     */
+    FAIL
+}
+
+/**
+ * Task which could be [rejected][reject] by a bounded executor instead of being run, for example, a listener
+ * dispatch which reports the rejection in its result.
+ */
+interface RejectableTask : Runnable {
+
+    /**
+     * Called instead of [run] when the task is rejected by [policy].
+     */
+    fun reject(policy: OverloadPolicy)
+}
+
+/**
+ * Submission failed because the queue of a bounded executor was full and [policy] could not accept the task.
+ * Submissions rejected for other reasons, such as executor shutdown, fail with a plain [RejectedExecutionException].
+ */
+class OverloadRejectedExecutionException(message: String, val policy: OverloadPolicy) :
+        RejectedExecutionException(message)
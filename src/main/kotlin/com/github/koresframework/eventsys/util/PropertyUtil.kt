@@ -35,9 +35,35 @@ import com.github.koresframework.eventsys.event.property.GetterProperty
 import com.github.koresframework.eventsys.event.property.Property
 import com.github.koresframework.eventsys.event.property.SetterProperty
 import com.github.koresframework.eventsys.event.property.primitive.*
+import com.github.jonathanxd.kores.type.`is`
+import com.github.jonathanxd.kores.type.concreteType
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
 import java.lang.reflect.Type
 import java.util.function.*
 
+/**
+ * Finds the getter of property [name] declared in [eventType] which returns exactly [type].
+ *
+ * Returns `null` if [eventType] could not be resolved to a class or if the property is not declared
+ * in the event type (for example, additional properties and extension properties).
+ */
+fun findPropertyGetter(eventType: Type, name: String, type: Type): Method? {
+    val klass = eventType.concreteType.bindedDefaultResolver.resolve().rightOrNull() as? Class<*>
+            ?: return null
+
+    val capitalized = name.capitalize()
+    val getterName = "get$capitalized"
+    val isName = "is$capitalized"
+
+    return klass.methods.firstOrNull {
+        (it.name == getterName || it.name == isName)
+                && it.parameterCount == 0
+                && !Modifier.isStatic(it.modifiers)
+                && type.`is`(it.returnType)
+    }
+}
+
 fun Type.getInvokeName() = when (this) {
     java.lang.Byte.TYPE,
     java.lang.Short.TYPE,
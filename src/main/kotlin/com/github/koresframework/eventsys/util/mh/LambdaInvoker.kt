@@ -0,0 +1,84 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util.mh
+
+/**
+ * Functional interfaces implemented through [LambdaMetafactory][java.lang.invoke.LambdaMetafactory]
+ * by [LambdaListener], one for each amount of listener parameters. `Of` interfaces are used for listener
+ * methods which returns values and `Void` interfaces for methods which does not.
+ */
+interface LambdaInvoker {
+
+    interface Of1 : LambdaInvoker {
+        fun invoke(a0: Any?): Any?
+    }
+
+    interface Of2 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?): Any?
+    }
+
+    interface Of3 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?): Any?
+    }
+
+    interface Of4 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?): Any?
+    }
+
+    interface Of5 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?, a4: Any?): Any?
+    }
+
+    interface Of6 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?, a4: Any?, a5: Any?): Any?
+    }
+
+    interface Void1 : LambdaInvoker {
+        fun invoke(a0: Any?)
+    }
+
+    interface Void2 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?)
+    }
+
+    interface Void3 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?)
+    }
+
+    interface Void4 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?)
+    }
+
+    interface Void5 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?, a4: Any?)
+    }
+
+    interface Void6 : LambdaInvoker {
+        fun invoke(a0: Any?, a1: Any?, a2: Any?, a3: Any?, a4: Any?, a5: Any?)
+    }
+}
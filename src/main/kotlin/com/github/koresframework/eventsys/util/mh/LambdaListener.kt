@@ -0,0 +1,276 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util.mh
+
+import com.github.koresframework.eventsys.event.*
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.findPropertyGetter
+import java.lang.invoke.LambdaMetafactory
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.util.function.Function
+
+/**
+ * Listener which invokes the listener method through a [LambdaInvoker] implemented by [LambdaMetafactory],
+ * so no class is generated by EventSys and listener is invoked almost as fast as a generated one.
+ *
+ * Arguments are fetched by accessors created with the listener: properties declared in the event type are
+ * read through functions implemented by [LambdaMetafactory] over the property getter, other properties
+ * are looked up in the event.
+ *
+ * Use [create] to create listeners, it fallbacks to [MethodDispatcher] when the method could not be linked:
+ * methods with more than [MAX_PARAMETERS] parameters, classes which are not accessible and, in Java 8, classes
+ * which are not visible to EventSys class loader.
+ */
+class LambdaListener private constructor(
+        /**
+         * Listener specification.
+         */
+        val listenerSpec: ListenerSpec,
+        /**
+         * Property accessors of each parameter, `null` for event parameter.
+         */
+        private val arguments: Array<PropertyArgument?>,
+        private val invoker: LambdaInvoker
+) : EventListener<Event> {
+
+    override fun onEvent(event: Event, dispatcher: Any): ListenResult {
+        val size = this.arguments.size
+
+        val a0 = this.argument(0, event)
+        if (a0 === PropertyArgument.NOT_FOUND) return this.arguments[0]!!.notFound
+        val a1 = if (size > 1) this.argument(1, event) else null
+        if (a1 === PropertyArgument.NOT_FOUND) return this.arguments[1]!!.notFound
+        val a2 = if (size > 2) this.argument(2, event) else null
+        if (a2 === PropertyArgument.NOT_FOUND) return this.arguments[2]!!.notFound
+        val a3 = if (size > 3) this.argument(3, event) else null
+        if (a3 === PropertyArgument.NOT_FOUND) return this.arguments[3]!!.notFound
+        val a4 = if (size > 4) this.argument(4, event) else null
+        if (a4 === PropertyArgument.NOT_FOUND) return this.arguments[4]!!.notFound
+        val a5 = if (size > 5) this.argument(5, event) else null
+        if (a5 === PropertyArgument.NOT_FOUND) return this.arguments[5]!!.notFound
+
+        val result = when (val invoker = this.invoker) {
+            is LambdaInvoker.Of1 -> invoker.invoke(a0)
+            is LambdaInvoker.Of2 -> invoker.invoke(a0, a1)
+            is LambdaInvoker.Of3 -> invoker.invoke(a0, a1, a2)
+            is LambdaInvoker.Of4 -> invoker.invoke(a0, a1, a2, a3)
+            is LambdaInvoker.Of5 -> invoker.invoke(a0, a1, a2, a3, a4)
+            is LambdaInvoker.Of6 -> invoker.invoke(a0, a1, a2, a3, a4, a5)
+            is LambdaInvoker.Void1 -> invoker.invoke(a0).let { null }
+            is LambdaInvoker.Void2 -> invoker.invoke(a0, a1).let { null }
+            is LambdaInvoker.Void3 -> invoker.invoke(a0, a1, a2).let { null }
+            is LambdaInvoker.Void4 -> invoker.invoke(a0, a1, a2, a3).let { null }
+            is LambdaInvoker.Void5 -> invoker.invoke(a0, a1, a2, a3, a4).let { null }
+            is LambdaInvoker.Void6 -> invoker.invoke(a0, a1, a2, a3, a4, a5).let { null }
+            else -> throw IllegalStateException("Unknown invoker: $invoker")
+        }
+
+        return when (result) {
+            null -> ListenResult.Value.UNIT
+            is ListenResult -> result
+            else -> ListenResult.Value(result)
+        }
+    }
+
+    private fun argument(index: Int, event: Event): Any? {
+        val argument = this.arguments[index]
+
+        return if (argument == null) event
+        else argument.get(event)
+    }
+
+    override val priority: EventPriority
+        get() = this.listenerSpec.priority
+
+    override val channel: String
+        get() = this.listenerSpec.channel
+
+    override val ignoreCancelled: Boolean
+        get() = this.listenerSpec.ignoreCancelled
+
+    override val cancelAffected: Boolean
+        get() = this.listenerSpec.cancelAffected
+
+    override fun toString(): String = "LambdaListener[\"${this.listenerSpec}\"]"
+
+    companion object {
+        /**
+         * Max amount of parameters of listener methods supported by [LambdaListener].
+         */
+        const val MAX_PARAMETERS = 6
+
+        private val INVOKERS = arrayOf(
+                LambdaInvoker.Of1::class.java,
+                LambdaInvoker.Of2::class.java,
+                LambdaInvoker.Of3::class.java,
+                LambdaInvoker.Of4::class.java,
+                LambdaInvoker.Of5::class.java,
+                LambdaInvoker.Of6::class.java
+        )
+
+        private val VOID_INVOKERS = arrayOf(
+                LambdaInvoker.Void1::class.java,
+                LambdaInvoker.Void2::class.java,
+                LambdaInvoker.Void3::class.java,
+                LambdaInvoker.Void4::class.java,
+                LambdaInvoker.Void5::class.java,
+                LambdaInvoker.Void6::class.java
+        )
+
+        /**
+         * Creates a [LambdaListener] which invokes [method] of [instance] (`null` for static methods), or
+         * a [MethodDispatcher] if [method] could not be linked.
+         */
+        @JvmStatic
+        fun create(listenerSpec: ListenerSpec, method: Method, instance: Any?): EventListener<Event> =
+                this.factory(listenerSpec, method)(instance)
+
+        /**
+         * Links [method] once and returns a function which creates [LambdaListeners][LambdaListener] invoking
+         * [method] of the provided instance (`null` for static methods), without spinning new lambda classes.
+         *
+         * The function creates [MethodDispatchers][MethodDispatcher] if [method] could not be linked.
+         */
+        @JvmStatic
+        fun factory(listenerSpec: ListenerSpec, method: Method): (Any?) -> EventListener<Event> {
+            val fallback = { instance: Any? -> MethodDispatcher(listenerSpec, method, instance) }
+
+            if (method.parameterCount !in 1..MAX_PARAMETERS)
+                return fallback
+
+            val lookup = this.lookupFor(method) ?: return fallback
+
+            return try {
+                val arguments = this.createArguments(lookup, listenerSpec)
+                val invoker = this.linkInvoker(lookup, method)
+
+                if (Modifier.isStatic(method.modifiers)) {
+                    val staticInvoker = invoker.invoke() as LambdaInvoker
+                    ({ _: Any? -> LambdaListener(listenerSpec, arguments, staticInvoker) })
+                } else {
+                    ({ instance: Any? -> LambdaListener(listenerSpec, arguments, invoker.invoke(instance) as LambdaInvoker) })
+                }
+            } catch (e: Exception) {
+                fallback
+            }
+        }
+
+        /**
+         * Gets the lookup used to link lambdas of [method].
+         *
+         * In Java 9+, lambdas are defined in the class loader of listener class, in Java 8 they are defined in
+         * EventSys class loader, so all types used by [method] must be visible to it.
+         */
+        private fun lookupFor(method: Method): MethodHandles.Lookup? {
+            if (Lookups.hasPrivateLookupIn)
+                return Lookups.privateLookupIn(method.declaringClass)
+
+            val lookup = MethodHandles.lookup()
+            val classLoader = lookup.lookupClass().classLoader
+
+            val visible = Lookups.isVisible(method.declaringClass, classLoader)
+                    && Lookups.isVisible(method.returnType, classLoader)
+                    && method.parameterTypes.all { Lookups.isVisible(it, classLoader) }
+
+            return if (visible) lookup else null
+        }
+
+        private fun createArguments(lookup: MethodHandles.Lookup,
+                                    listenerSpec: ListenerSpec): Array<PropertyArgument?> =
+                listenerSpec.parameters.mapIndexed { i, spec ->
+                    if (listenerSpec.firstIsEvent && i == 0) {
+                        null
+                    } else {
+                        val getter =
+                                if (!spec.shouldLookup) findPropertyGetter(listenerSpec.eventType, spec.name, spec.type)
+                                else null
+
+                        getter?.let { this.createGetter(lookup, it) }
+                                ?.let { GetterArgument(spec, it) }
+                                ?: PropertyArgument(spec)
+                    }
+                }.toTypedArray()
+
+        /**
+         * Implements a [Function] which calls [getter], or returns `null` if [getter] could not be linked.
+         */
+        @Suppress("UNCHECKED_CAST")
+        private fun createGetter(lookup: MethodHandles.Lookup, getter: Method): Function<Event, Any?>? {
+            if (!Lookups.hasPrivateLookupIn && !Lookups.isVisible(getter.declaringClass, lookup.lookupClass().classLoader))
+                return null
+
+            return try {
+                val site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply",
+                        MethodType.methodType(Function::class.java),
+                        MethodType.genericMethodType(1),
+                        lookup.unreflect(getter),
+                        MethodType.methodType(getter.returnType, getter.declaringClass).wrap()
+                )
+
+                site.target.invoke() as Function<Event, Any?>
+            } catch (e: Exception) {
+                null
+            }
+        }
+
+        /**
+         * Links the lambda factory of [method], which receives the instance to bind for non-static methods.
+         */
+        private fun linkInvoker(lookup: MethodHandles.Lookup, method: Method): MethodHandle {
+            val isStatic = Modifier.isStatic(method.modifiers)
+            val isVoid = method.returnType == Void.TYPE
+            val parameterCount = method.parameterCount
+
+            val invokerType = (if (isVoid) VOID_INVOKERS else INVOKERS)[parameterCount - 1]
+            val genericType = MethodType.genericMethodType(parameterCount)
+
+            // Primitive parameters are unboxed and primitive return value is boxed by the lambda
+            val instantiatedType = MethodType.methodType(method.returnType, method.parameterTypes).wrap().let {
+                if (isVoid) it.changeReturnType(Void.TYPE) else it
+            }
+
+            val site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "invoke",
+                    if (isStatic) MethodType.methodType(invokerType)
+                    else MethodType.methodType(invokerType, method.declaringClass),
+                    if (isVoid) genericType.changeReturnType(Void.TYPE) else genericType,
+                    lookup.unreflect(method),
+                    instantiatedType
+            )
+
+            return site.target
+        }
+    }
+}
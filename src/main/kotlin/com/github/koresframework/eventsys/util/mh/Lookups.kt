@@ -0,0 +1,160 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util.mh
+
+import java.lang.invoke.MethodHandles
+import java.lang.reflect.Method
+
+/**
+ * Utilities to obtain [lookups][MethodHandles.Lookup] which are able to define classes and link lambdas
+ * to classes which EventSys does not own.
+ */
+internal object Lookups {
+
+    /**
+     * `MethodHandles.privateLookupIn`, only present in Java 9+.
+     */
+    private val privateLookupIn: Method? = try {
+        MethodHandles::class.java.getMethod("privateLookupIn", Class::class.java, MethodHandles.Lookup::class.java)
+    } catch (e: NoSuchMethodException) {
+        null
+    }
+
+    /**
+     * `MethodHandles.Lookup.defineClass`, only present in Java 9+.
+     */
+    private val defineClass: Method? = try {
+        MethodHandles.Lookup::class.java.getMethod("defineClass", ByteArray::class.java)
+    } catch (e: NoSuchMethodException) {
+        null
+    }
+
+    /**
+     * `MethodHandles.Lookup.defineHiddenClass` and an empty `ClassOption` array, only present in Java 15+.
+     */
+    private val defineHiddenClass: Pair<Method, Any>? = try {
+        val classOption = Class.forName("java.lang.invoke.MethodHandles\$Lookup\$ClassOption")
+        val options = java.lang.reflect.Array.newInstance(classOption, 0)
+
+        MethodHandles.Lookup::class.java.getMethod(
+                "defineHiddenClass",
+                ByteArray::class.java,
+                Boolean::class.javaPrimitiveType,
+                options.javaClass
+        ) to options
+    } catch (e: ClassNotFoundException) {
+        null
+    } catch (e: NoSuchMethodException) {
+        null
+    }
+
+    /**
+     * Whether `MethodHandles.privateLookupIn` is available in current runtime.
+     */
+    val hasPrivateLookupIn: Boolean
+        get() = this.privateLookupIn != null
+
+    /**
+     * Gets a lookup with private access to [klass], or `null` if runtime does not support it (Java 8) or
+     * if [klass] is not accessible (for example, when it is in a module which does not open its package).
+     */
+    fun privateLookupIn(klass: Class<*>): MethodHandles.Lookup? {
+        val privateLookupIn = this.privateLookupIn ?: return null
+
+        return try {
+            privateLookupIn.invoke(null, klass, MethodHandles.lookup()) as MethodHandles.Lookup
+        } catch (e: ReflectiveOperationException) {
+            null
+        } catch (e: SecurityException) {
+            null
+        }
+    }
+
+    /**
+     * Checks whether [klass] resolves to the same class when loaded from [classLoader].
+     */
+    fun isVisible(klass: Class<*>, classLoader: ClassLoader?): Boolean {
+        var component = klass
+
+        while (component.isArray)
+            component = component.componentType
+
+        if (component.isPrimitive)
+            return true
+
+        return try {
+            Class.forName(component.name, false, classLoader) === component
+        } catch (e: ClassNotFoundException) {
+            false
+        } catch (e: LinkageError) {
+            false
+        }
+    }
+
+    /**
+     * Whether `MethodHandles.Lookup.defineHiddenClass` is available in current runtime.
+     */
+    val hasDefineHiddenClass: Boolean
+        get() = this.defineHiddenClass != null
+
+    /**
+     * Defines class of [bytes] in the package and class loader of [host] using `Lookup.defineClass`.
+     *
+     * Returns `null` if runtime does not support it (Java 8), if [host] is not accessible or if
+     * class is not declared in the same package as [host].
+     */
+    fun defineClass(host: Class<*>, bytes: ByteArray): Class<*>? {
+        val defineClass = this.defineClass ?: return null
+        val lookup = this.privateLookupIn(host) ?: return null
+
+        return try {
+            defineClass.invoke(lookup, bytes) as Class<*>
+        } catch (e: ReflectiveOperationException) {
+            null
+        }
+    }
+
+    /**
+     * Defines class of [bytes] as a hidden class nestled in the package and class loader of [host]
+     * using `Lookup.defineHiddenClass`. Hidden classes cannot be resolved by name, but are unloaded as soon
+     * as they are no longer reachable.
+     *
+     * Returns `null` if runtime does not support it (Java 14 or older), if [host] is not accessible or if
+     * class is not declared in the same package as [host].
+     */
+    fun defineHiddenClass(host: Class<*>, bytes: ByteArray): Class<*>? {
+        val (defineHiddenClass, options) = this.defineHiddenClass ?: return null
+        val lookup = this.privateLookupIn(host) ?: return null
+
+        return try {
+            (defineHiddenClass.invoke(lookup, bytes, true, options) as MethodHandles.Lookup).lookupClass()
+        } catch (e: ReflectiveOperationException) {
+            null
+        }
+    }
+}
@@ -27,24 +27,16 @@
  */
 package com.github.koresframework.eventsys.util.mh
 
-import com.github.jonathanxd.iutils.`object`.result.Result
-import com.github.jonathanxd.iutils.type.TypeInfo
-import com.github.jonathanxd.kores.type.GenericType
-import com.github.jonathanxd.kores.type.`is`
-import com.github.jonathanxd.kores.type.concreteType
 import com.github.koresframework.eventsys.error.CouldNotDispatchError
 import com.github.koresframework.eventsys.event.*
-import com.github.koresframework.eventsys.event.property.GetterProperty
-import com.github.koresframework.eventsys.event.property.Property
-import com.github.koresframework.eventsys.error.ListenError
 import com.github.koresframework.eventsys.error.MissingEventTypeError
-import com.github.koresframework.eventsys.error.PropertyNotFoundError
 import com.github.koresframework.eventsys.result.ListenResult
-import com.github.koresframework.eventsys.util.createNoneRuntime
-import com.github.koresframework.eventsys.util.createSomeRuntime
 import java.lang.invoke.MethodHandle
 import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
 import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.Type
 
 /**
  * Class used to dispatch method listener events.
@@ -52,6 +44,10 @@ import java.lang.reflect.Method
  * This dispatcher uses Java 7 [MethodHandle] to dispatch the event, the [MethodHandle] is faster
  * than Reflection but is slower than direct invocation.
  *
+ * All the invocation pipeline is computed when the dispatcher is created: parameter types are resolved,
+ * property accessors are created and the [method] is adapted to receive an array of arguments, so
+ * dispatching an event only fetches properties and does a single [MethodHandle.invokeExact].
+ *
  * This dispatcher is a bit optimized, but we recommend to use direct invocation.
  */
 open class MethodDispatcher(
@@ -69,69 +65,72 @@ open class MethodDispatcher(
          */
         instance: Any?) : EventListener<Event> {
 
-    @Suppress("UNCHECKED_CAST")
-    val eventType: TypeInfo<Event> = this.listenerSpec.eventType as TypeInfo<Event>
+    val eventType: Type = this.listenerSpec.eventType
 
-    val backingMethod_: MethodHandle by lazy {
-        lookup.unreflect(method).bindTo(instance)
-    }
+    val backingMethod_: MethodHandle =
+            lookup.unreflect(method).let {
+                if (Modifier.isStatic(method.modifiers)) it
+                else it.bindTo(instance)
+            }
 
     val method: MethodHandle
         get() = backingMethod_
 
+    /**
+     * Property accessors of each parameter, `null` for event parameter.
+     */
+    private val arguments: Array<PropertyArgument?>
+
+    /**
+     * [method] adapted to `(Object[])Object` type.
+     */
+    private val invoker: MethodHandle
+
     init {
         if (method.genericParameterTypes.isEmpty()) {
             throw IllegalArgumentException("Invalid Method: '$method'. (No Parameters)")
         }
+
+        this.arguments = this.listenerSpec.parameters.mapIndexed { i, spec ->
+            if (this.listenerSpec.firstIsEvent && i == 0) null
+            else PropertyArgument(spec)
+        }.toTypedArray()
+
+        val parameterCount = this.backingMethod_.type().parameterCount()
+
+        this.invoker = this.backingMethod_
+                .asType(MethodType.genericMethodType(parameterCount))
+                .asSpreader(Array<Any?>::class.java, parameterCount)
     }
 
     override fun onEvent(event: Event, dispatcher: Any): ListenResult {
+        if (this.arguments.isEmpty()) {
+            return if (!this.listenerSpec.firstIsEvent) ListenResult.Failed(MissingEventTypeError)
+            else ListenResult.Failed(CouldNotDispatchError)
+        }
+
+        val args = arrayOfNulls<Any?>(this.arguments.size)
 
-        // Process [parameters]
-        if (listenerSpec.firstIsEvent && listenerSpec.parameters.size == 1) {
-            return ListenResult.Value(method.invokeWithArguments(event))
-        } else if (this.listenerSpec.parameters.isNotEmpty()) {
-            val args: MutableList<Any?> = mutableListOf()
-
-            if (listenerSpec.firstIsEvent)
-                args += event
-
-            this.listenerSpec.parameters.forEachIndexed { i, spec ->
-                if (!this.listenerSpec.firstIsEvent || i > 0) {
-                    val name = spec.name
-                    val typeInfo = spec.type
-
-                    val ctype =
-                            if (typeInfo is GenericType
-                                    && typeInfo.concreteType.`is`(Property::class.java)
-                                    && typeInfo.bounds.size == 1)
-                                typeInfo.bounds[0].type
-                            else
-                                typeInfo
-
-                    val type = ctype.concreteType.bindedDefaultResolver.resolve().right as Class<*>
-
-                    val found =
-                            if (spec.shouldLookup) event.lookup(type, name) as? GetterProperty<*>
-                            else event.getGetterProperty(type, name)
-
-                    if (found == null && spec.isOptional) {
-                        if (spec.optType == null) args.add(null)
-                        else args.add(spec.optType.createNoneRuntime())
-                    } else if (found == null) {
-                        return ListenResult.Failed(PropertyNotFoundError(name, type))
-                    } else {
-                        if (spec.optType == null) args.add(found.getValue())
-                        else args.add(spec.optType.createSomeRuntime(found.getValue()))
-                    }
-                }
+        for (i in this.arguments.indices) {
+            val argument = this.arguments[i]
+
+            if (argument == null) {
+                args[i] = event
+                continue
             }
 
-            return ListenResult.Value(method.invokeWithArguments(args))
-        } else if (!listenerSpec.firstIsEvent) {
-            return ListenResult.Failed(MissingEventTypeError)
-        } else {
-            return ListenResult.Failed(CouldNotDispatchError)
+            val value = argument.get(event)
+
+            if (value === PropertyArgument.NOT_FOUND)
+                return argument.notFound
+
+            args[i] = value
+        }
+
+        return when (val result = this.invoker.invokeExact(args)) {
+            null -> ListenResult.Value.UNIT
+            is ListenResult -> result
+            else -> ListenResult.Value(result)
         }
     }
 
@@ -150,4 +149,4 @@ open class MethodDispatcher(
     companion object {
         val lookup = MethodHandles.publicLookup()
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.util.mh
+
+import com.github.jonathanxd.kores.type.GenericType
+import com.github.jonathanxd.kores.type.`is`
+import com.github.jonathanxd.kores.type.concreteType
+import com.github.koresframework.eventsys.error.PropertyNotFoundError
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.ListenerSpec
+import com.github.koresframework.eventsys.event.property.GetterProperty
+import com.github.koresframework.eventsys.event.property.Property
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.createNoneRuntime
+import com.github.koresframework.eventsys.util.createSomeRuntime
+import java.util.function.Function
+
+/**
+ * Accessor of property which is passed to listener parameter, resolved from [spec] once, when the listener
+ * is created.
+ */
+internal open class PropertyArgument(spec: ListenerSpec.LParameter) {
+    val name = spec.name
+    private val isOptional = spec.isOptional
+    private val optType = spec.optType
+    private val shouldLookup = spec.shouldLookup
+
+    val type: Class<*> = spec.type.let { typeInfo ->
+        val ctype =
+                if (typeInfo is GenericType
+                        && typeInfo.concreteType.`is`(Property::class.java)
+                        && typeInfo.bounds.size == 1)
+                    typeInfo.bounds[0].type
+                else
+                    typeInfo
+
+        ctype.concreteType.bindedDefaultResolver.resolve().right as Class<*>
+    }
+
+    /**
+     * Result of listener when property is not present.
+     */
+    val notFound: ListenResult = ListenResult.Failed(PropertyNotFoundError(this.name, this.type))
+
+    /**
+     * Value passed when optional property is not present.
+     */
+    private val none: Any? = if (this.isOptional) this.optType?.createNoneRuntime() else null
+
+    /**
+     * Gets the value to pass to listener, or [NOT_FOUND] if property is not present and is not optional.
+     */
+    open fun get(event: Event): Any? {
+        val found =
+                if (this.shouldLookup) event.lookup(this.type, this.name) as? GetterProperty<*>
+                else event.getGetterProperty(this.type, this.name)
+
+        return when {
+            found != null -> this.wrap(found.getValue())
+            this.isOptional -> this.none
+            else -> NOT_FOUND
+        }
+    }
+
+    protected fun wrap(value: Any?): Any? =
+            if (this.optType == null) value
+            else this.optType.createSomeRuntime(value)
+
+    companion object {
+        /**
+         * Marker of properties which are not present.
+         */
+        @JvmField
+        val NOT_FOUND = Any()
+    }
+}
+
+/**
+ * Accessor of property which is declared in event type, the value is read directly from the [getter]
+ * instead of looking up the property.
+ */
+internal class GetterArgument(
+        spec: ListenerSpec.LParameter,
+        private val getter: Function<Event, Any?>
+) : PropertyArgument(spec) {
+
+    override fun get(event: Event): Any? =
+            this.wrap(this.getter.apply(event))
+}
@@ -45,6 +45,7 @@ import com.github.koresframework.eventsys.impl.CommonEventManager;
 import com.github.koresframework.eventsys.impl.CommonLogger;
 import com.github.koresframework.eventsys.logging.LoggerInterface;
 import com.github.koresframework.eventsys.result.DispatchResult;
+import com.github.koresframework.eventsys.result.ListenExecutionResult;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
@@ -57,6 +58,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
@@ -182,5 +184,24 @@ public class DistributedChannelTest {
             return result;
         }
 
+        @NotNull
+        @Override
+        public <T extends Event> CompletableFuture<List<ListenExecutionResult<T>>> dispatchOrderedAsync(@NotNull T event,
+                                                                                                      @NotNull Type eventType,
+                                                                                                      @NotNull Object dispatcher,
+                                                                                                      @NotNull String channel,
+                                                                                                      @NotNull EnvironmentContext ctx) {
+            return EventDispatcher.DefaultImpls.dispatchOrderedAsync(this, event, eventType, dispatcher, channel, ctx);
+        }
+
+        @Override
+        public <T extends Event> void post(@NotNull T event,
+                                           @NotNull Type eventType,
+                                           @NotNull Object dispatcher,
+                                           @NotNull String channel,
+                                           @NotNull EnvironmentContext ctx) {
+            EventDispatcher.DefaultImpls.post(this, event, eventType, dispatcher, channel, ctx);
+        }
+
     }
 }
@@ -34,6 +34,7 @@ import com.github.koresframework.eventsys.event.Event;
 import com.github.koresframework.eventsys.event.EventListener;
 import com.github.koresframework.eventsys.event.EventListenerRegistry;
 import com.github.koresframework.eventsys.event.ListenerRegistryResults;
+import com.github.koresframework.eventsys.event.UnregisterableEventListenerRegistry;
 import com.github.koresframework.eventsys.impl.CommonEventManager;
 import com.github.koresframework.eventsys.impl.EventListenerContainer;
 
@@ -42,13 +43,14 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import kotlin.Pair;
 
-public class DistributedRegistry implements ChannelEventListenerRegistry {
+public class DistributedRegistry implements ChannelEventListenerRegistry, UnregisterableEventListenerRegistry {
     private final List<ChannelEventListenerRegistry> channelEventListenerRegistries;
 
     public DistributedRegistry(List<CommonEventManager> eventManagers) {
@@ -96,6 +98,24 @@ public class DistributedRegistry implements ChannelEventListenerRegistry {
         );
     }
 
+    @Override
+    public boolean unregisterListener(@NotNull EventListener<?> eventListener) {
+        boolean unregistered = false;
+
+        for (ChannelEventListenerRegistry registry : this.channelEventListenerRegistries) {
+            unregistered |= ((UnregisterableEventListenerRegistry) registry).unregisterListener(eventListener);
+        }
+
+        return unregistered;
+    }
+
+    @Override
+    public int unregisterAll(@NotNull Object owner) {
+        return this.channelEventListenerRegistries.stream()
+                .mapToInt(it -> ((UnregisterableEventListenerRegistry) it).unregisterAll(owner))
+                .sum();
+    }
+
     @NotNull
     @Override
     public <T extends Event> Set<Pair<Type, EventListener<T>>> getListeners(@NotNull Type eventType) {
@@ -158,6 +178,19 @@ public class DistributedRegistry implements ChannelEventListenerRegistry {
         return EventListenerRegistry.DefaultImpls.registerListeners(this, owner, listener);
     }
 
+    @NotNull
+    @Override
+    public ListenerRegistryResults registerListeners(@NotNull Collection<Pair<Object, Object>> listeners) {
+        return EventListenerRegistry.DefaultImpls.registerListeners(this, listeners);
+    }
+
+    @NotNull
+    @Override
+    public ListenerRegistryResults registerListeners(@NotNull Collection<Pair<Object, Object>> listeners,
+                                                     @NotNull EnvironmentContext ctx) {
+        return EventListenerRegistry.DefaultImpls.registerListeners(this, listeners, ctx);
+    }
+
     @NotNull
     @Override
     public ListenerRegistryResults registerMethodListener(@NotNull Object owner, @NotNull Type eventClass, @NotNull Object instance, @NotNull Method method) {
@@ -67,7 +67,7 @@ class CancellableTest {
         Assert.assertEquals(1, this.call)
         Assert.assertEquals(0, this.call2)
         Assert.assertEquals(1, this.call3)
-        Assert.assertEquals(0, this.call4)
+        Assert.assertEquals(1, this.call4)
     }
 
 
@@ -94,6 +94,24 @@ class CancellableTest {
         Assert.assertEquals(listOf(true, true, true, true), distinctBy.map { (it.result as ListenResult.Value).value }.toList())
     }
 
+    @Test
+    fun cancellableOrderedAsync() {
+        val eventManager = DefaultEventManager()
+        eventManager.eventListenerRegistry.registerListeners(this, this)
+
+        val user = User(id = 0, name = "Test", email = "test@test.com")
+        val factory = eventManager.eventGenerator.createFactory<EventFactory>().resolve()
+
+        val results = eventManager.dispatchOrderedAsync(factory.createUserRegisterEvent(user), this).join()
+
+        Assert.assertEquals(1, this.call)
+        Assert.assertEquals(0, this.call2)
+        Assert.assertEquals(1, this.call3)
+        Assert.assertEquals(1, this.call4)
+        Assert.assertEquals(4, results.size)
+        Assert.assertEquals(1, results.count { it.result is ListenResult.Failed })
+    }
+
     interface EventFactory {
         fun createUserRegisterEvent(@Name("user") user: User): UserRegisterEvent
     }
@@ -119,6 +137,141 @@ class CancellableTest {
         return true
     }
 
+    @Test
+    fun cancelledMidChain() {
+        val eventManager = DefaultEventManager()
+        val listener = MidChainListener()
+        eventManager.eventListenerRegistry.registerListeners(this, listener)
+
+        val user = User(id = 0, name = "Test", email = "test@test.com")
+        val factory = eventManager.eventGenerator.createFactory<EventFactory>().resolve()
+
+        eventManager.dispatch(factory.createUserRegisterEvent(user), this)
+
+        Assert.assertEquals(listOf("first", "monitor"), listener.calls)
+    }
+
+    class MidChainListener {
+        val calls = mutableListOf<String>()
+
+        @Listener(priority = EventPriority.FIRST)
+        fun first(userRegisterEvent: UserRegisterEvent) {
+            calls += "first"
+            userRegisterEvent.isCancelled = true
+        }
+
+        @Listener(priority = EventPriority.HIGH)
+        @CancelAffected
+        fun high(userRegisterEvent: UserRegisterEvent) {
+            calls += "high"
+        }
+
+        @Listener(priority = EventPriority.HIGHEST)
+        @CancelAffected
+        fun highest(userRegisterEvent: UserRegisterEvent) {
+            calls += "highest"
+        }
+
+        @Listener(priority = EventPriority.LAST)
+        fun monitor(userRegisterEvent: UserRegisterEvent) {
+            calls += "monitor"
+        }
+    }
+
+    @Test
+    fun ignoreCancelled() {
+        val eventManager = DefaultEventManager()
+        val listener = IgnoreCancelledListener()
+        eventManager.eventListenerRegistry.registerListeners(this, listener)
+
+        val user = User(id = 0, name = "Test", email = "test@test.com")
+        val factory = eventManager.eventGenerator.createFactory<EventFactory>().resolve()
+
+        eventManager.dispatch(factory.createUserRegisterEvent(user), this)
+
+        Assert.assertEquals(listOf("first", "monitor"), listener.calls)
+    }
+
+    class IgnoreCancelledListener {
+        val calls = mutableListOf<String>()
+
+        @Listener(priority = EventPriority.FIRST)
+        fun first(userRegisterEvent: UserRegisterEvent) {
+            calls += "first"
+            userRegisterEvent.isCancelled = true
+        }
+
+        @Listener(priority = EventPriority.HIGH, ignoreCancelled = true)
+        fun high(userRegisterEvent: UserRegisterEvent) {
+            calls += "high"
+        }
+
+        @Listener(priority = EventPriority.LAST)
+        fun monitor(userRegisterEvent: UserRegisterEvent) {
+            calls += "monitor"
+        }
+    }
+
+    @Test
+    fun ignoreCancelledAndCancelAffected() {
+        val eventManager = DefaultEventManager()
+        val listener = CancelFlagsListener()
+        eventManager.eventListenerRegistry.registerListeners(this, listener)
+
+        val user = User(id = 0, name = "Test", email = "test@test.com")
+        val factory = eventManager.eventGenerator.createFactory<EventFactory>().resolve()
+
+        eventManager.dispatch(factory.createUserRegisterEvent(user), this)
+
+        Assert.assertEquals(listOf("first", "none"), listener.calls)
+
+        listener.calls.clear()
+
+        eventManager.dispatchOrderedAsync(factory.createUserRegisterEvent(user), this).join()
+
+        Assert.assertEquals(listOf("first", "none"), listener.calls)
+
+        listener.calls.clear()
+        listener.cancel = false
+
+        eventManager.dispatchOrderedAsync(factory.createUserRegisterEvent(user), this).join()
+
+        Assert.assertEquals(listOf("first", "cancelAffected", "ignoreCancelled", "both", "none"), listener.calls)
+    }
+
+    class CancelFlagsListener {
+        val calls = mutableListOf<String>()
+        var cancel = true
+
+        @Listener(priority = EventPriority.FIRST)
+        fun first(userRegisterEvent: UserRegisterEvent) {
+            calls += "first"
+            userRegisterEvent.isCancelled = cancel
+        }
+
+        @Listener(priority = EventPriority.LOW)
+        @CancelAffected
+        fun cancelAffected(userRegisterEvent: UserRegisterEvent) {
+            calls += "cancelAffected"
+        }
+
+        @Listener(priority = EventPriority.NORMAL, ignoreCancelled = true)
+        fun ignoreCancelled(userRegisterEvent: UserRegisterEvent) {
+            calls += "ignoreCancelled"
+        }
+
+        @Listener(priority = EventPriority.HIGH, ignoreCancelled = true)
+        @CancelAffected
+        fun both(userRegisterEvent: UserRegisterEvent) {
+            calls += "both"
+        }
+
+        @Listener(priority = EventPriority.LAST)
+        fun none(userRegisterEvent: UserRegisterEvent) {
+            calls += "none"
+        }
+    }
+
     @Listener(priority = EventPriority.LAST)
     @CancelAffected
     fun onUserRegister4(userRegisterEvent: UserRegisterEvent): Boolean {
@@ -0,0 +1,177 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.error.DispatchRejectedError
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.*
+import com.github.koresframework.eventsys.result.DispatchResult
+import com.github.koresframework.eventsys.result.ListenExecutionResult
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.OverloadPolicy
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+
+class BoundedDispatchTest {
+
+    @Test
+    fun dropNewest() {
+        this.overload(OverloadPolicy.DROP_NEWEST) { executor, second, third ->
+            Assert.assertTrue(second.rejected.isEmpty())
+            Assert.assertEquals(OverloadPolicy.DROP_NEWEST, third.rejected.single().rejectedBy())
+            Assert.assertEquals(1L, executor.rejectedCount)
+        }
+    }
+
+    @Test
+    fun dropOldest() {
+        this.overload(OverloadPolicy.DROP_OLDEST) { executor, second, third ->
+            Assert.assertEquals(OverloadPolicy.DROP_OLDEST, second.rejected.single().rejectedBy())
+            Assert.assertTrue(third.rejected.isEmpty())
+            Assert.assertEquals(1L, executor.rejectedCount)
+        }
+    }
+
+    @Test
+    fun fail() {
+        this.overload(OverloadPolicy.FAIL) { executor, second, third ->
+            Assert.assertTrue(second.rejected.isEmpty())
+            Assert.assertEquals(OverloadPolicy.FAIL, third.rejected.single().rejectedBy())
+            Assert.assertEquals(1L, executor.rejectedCount)
+        }
+    }
+
+    @Test
+    fun callerRuns() {
+        this.overload(OverloadPolicy.CALLER_RUNS) { executor, second, third ->
+            Assert.assertTrue(second.rejected.isEmpty())
+            Assert.assertTrue(third.rejected.isEmpty())
+            // Run in this thread
+            Assert.assertTrue(third.listenExecutionResults.single().isDone)
+            Assert.assertEquals(0L, executor.rejectedCount)
+        }
+    }
+
+    @Test
+    fun orderedAsyncFail() {
+        val executor = BoundedExecutor(1, 1, OverloadPolicy.FAIL)
+
+        DispatchFixture(executorStrategy = ExecutorStrategy.of(executor)).use { fixture ->
+            val manager = fixture.manager
+            val factory = fixture.factory
+            val worker = Blocker()
+
+            fixture.registry.registerListeners(this, worker)
+
+            val first = manager.dispatchOrderedAsync(factory.createValueEvent("a"), this)
+
+            worker.started.await()
+
+            val second = manager.dispatchOrderedAsync(factory.createValueEvent("b"), this)
+            // Rejected through the results, like asynchronous dispatch, instead of throwing
+            val third = manager.dispatchOrderedAsync(factory.createValueEvent("c"), this)
+
+            Assert.assertEquals(OverloadPolicy.FAIL, third.join().single().rejectedBy())
+
+            worker.release.countDown()
+
+            first.join()
+            Assert.assertFalse(second.join().single().result is ListenResult.Failed)
+        }
+    }
+
+    @Test
+    fun shutdown() {
+        val executor = BoundedExecutor(1, 1, OverloadPolicy.FAIL)
+
+        DispatchFixture(executorStrategy = ExecutorStrategy.of(executor)).use { fixture ->
+            fixture.registry.registerListeners(this, Blocker())
+
+            executor.shutdown()
+
+            val result = fixture.manager.dispatchAsync(fixture.factory.createValueEvent("a"), this)
+
+            // Not rejected because of an overload
+            Assert.assertNull(result.rejected.single().rejectedBy())
+            Assert.assertEquals(0L, executor.overloadCount)
+        }
+    }
+
+    private fun overload(policy: OverloadPolicy,
+                         assertions: (BoundedExecutor, DispatchResult<*>, DispatchResult<*>) -> Unit) {
+        val executor = BoundedExecutor(1, 1, policy)
+
+        DispatchFixture(executorStrategy = ExecutorStrategy.of(executor)).use { fixture ->
+            val manager = fixture.manager
+            val factory = fixture.factory
+            val worker = Blocker()
+
+            fixture.registry.registerListeners(this, worker)
+
+            val first = manager.dispatchAsync(factory.createValueEvent("a"), this)
+
+            // Wait the worker to be blocked by the first dispatch
+            worker.started.await()
+
+            val second = manager.dispatchAsync(factory.createValueEvent("b"), this)
+            val third = manager.dispatchAsync(factory.createValueEvent("c"), this)
+
+            Assert.assertEquals(1, executor.queueDepth)
+
+            Assert.assertEquals(1L, executor.overloadCount)
+
+            assertions(executor, second, third)
+
+            worker.release.countDown()
+
+            first.await()
+            second.await()
+            third.await()
+        }
+    }
+
+    private fun ListenExecutionResult<*>.rejectedBy(): OverloadPolicy? =
+            ((this.result as ListenResult.Failed).error as DispatchRejectedError).policy
+
+    class Blocker {
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            // Only the first dispatch blocks, so listeners run by the producer does not block
+            if (value == "a") {
+                started.countDown()
+                release.await()
+            }
+        }
+    }
+}
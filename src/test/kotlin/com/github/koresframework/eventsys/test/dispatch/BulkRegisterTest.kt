@@ -0,0 +1,125 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.EventListenerRegistryObserver
+import com.github.koresframework.eventsys.event.EventPriority
+import com.github.koresframework.eventsys.event.ObservableEventListenerRegistry
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.EventListenerContainer
+import org.junit.Assert
+import org.junit.Test
+
+class BulkRegisterTest {
+
+    @Test
+    fun bulkRegister() = DispatchFixture().use { fixture ->
+        val registry = fixture.registry
+        val calls = mutableListOf<String>()
+        val pluginA = Any()
+        val pluginB = Any()
+
+        val listeners = (0 until 32).map { (if (it % 2 == 0) pluginA else pluginB) to OrderedListener(calls, "$it") }
+
+        val results = registry.registerListeners(listeners + (pluginA to FirstListener(calls)))
+
+        Assert.assertTrue(results.allRegistered())
+        Assert.assertEquals(65, results.results.size)
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this)
+
+        Assert.assertEquals(65, calls.size)
+        Assert.assertEquals("first", calls.first())
+        // Listeners with same priority keeps registration order
+        Assert.assertEquals((0 until 32).map { "normal $it" }, calls.filter { it.startsWith("normal") })
+        Assert.assertEquals((0 until 32).map { "last $it" }, calls.filter { it.startsWith("last") })
+
+        Assert.assertEquals(33, registry.unregisterAll(pluginA))
+    }
+
+    @Test
+    fun registerInstancesOfSameClass() = DispatchFixture().use { fixture ->
+        val registry = fixture.registry
+        val calls = mutableListOf<String>()
+        val plugin = Any()
+
+        (0 until 100).forEach {
+            Assert.assertTrue(registry.registerListeners(plugin, OrderedListener(calls, "$it")).allRegistered())
+        }
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this)
+
+        Assert.assertEquals(200, calls.size)
+        // Listener classes are generated once for each method
+        Assert.assertEquals(2, registry.getListenersContainers().map { it.eventListener::class.java }.toSet().size)
+        Assert.assertEquals(200, registry.unregisterAll(plugin))
+    }
+
+    @Test
+    fun notifyOncePerBatch() = DispatchFixture().use { fixture ->
+        val registry = fixture.registry as ObservableEventListenerRegistry
+        val batches = mutableListOf<Int>()
+
+        registry.addObserver(object : EventListenerRegistryObserver {
+            override fun onRegister(container: EventListenerContainer<*>) {
+                batches += 1
+            }
+
+            override fun onRegisterAll(containers: List<EventListenerContainer<*>>) {
+                batches += containers.size
+            }
+        })
+
+        val plugin = Any()
+        val calls = mutableListOf<String>()
+
+        registry.registerListeners((0 until 8).map { plugin to OrderedListener(calls, "$it") })
+
+        Assert.assertEquals(listOf(16), batches)
+    }
+
+    class OrderedListener(private val calls: MutableList<String>, private val id: String) {
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            calls += "normal $id"
+        }
+
+        @Listener(priority = EventPriority.LAST)
+        fun onEventLast(event: ValueEvent) {
+            calls += "last $id"
+        }
+    }
+
+    class FirstListener(private val calls: MutableList<String>) {
+        @Listener(priority = EventPriority.FIRST)
+        fun onEvent(event: ValueEvent) {
+            calls += "first"
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.EventManager
+import com.github.koresframework.eventsys.event.UnregisterableEventListenerRegistry
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.util.createFactory
+import org.junit.Assert
+import org.junit.Test
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicInteger
+
+class ClassUnloadTest {
+
+    @Test
+    fun generatedListenerClassesAreUnloaded() = DispatchFixture().use { fixture ->
+        val factory = fixture.generator.createFactory<ReloadEventFactory>().resolve()
+
+        val (loader, generated) = this.loadDispatchAndUnregister(fixture.registry, fixture.manager, factory)
+
+        for (i in 0 until 50) {
+            if (loader.get() == null && generated.get() == null)
+                break
+
+            System.gc()
+            Thread.sleep(20)
+        }
+
+        Assert.assertNull("Generated listener class was not unloaded", generated.get())
+        Assert.assertNull("Listener class loader was not unloaded", loader.get())
+    }
+
+    @Test
+    fun listenerClassesAreSharedByOwners() = DispatchFixture().use { fixture ->
+        val registry = fixture.registry
+        val factory = fixture.generator.createFactory<ReloadEventFactory>().resolve()
+        val ownerA = Any()
+        val ownerB = Any()
+        val calls = ReloadCalls.calls.get()
+
+        registry.registerListeners(ownerA, ReloadableListener())
+        registry.registerListeners(ownerB, ReloadableListener())
+
+        val generated = registry.getListenersContainers().map { it.eventListener.javaClass }.distinct().single()
+
+        Assert.assertEquals(1, registry.unregisterAll(ownerA))
+
+        // ownerB still uses the listener class, so it is not generated again for a new owner
+        registry.registerListeners(Any(), ReloadableListener())
+
+        Assert.assertEquals(generated, registry.getListenersContainers().map { it.eventListener.javaClass }.distinct().single())
+
+        fixture.manager.dispatch(factory.createReloadEvent("a"), this)
+
+        Assert.assertEquals(calls + 2, ReloadCalls.calls.get())
+    }
+
+    // Nothing loaded by the reloading class loader must be reachable from the test method frame.
+    private fun loadDispatchAndUnregister(
+            registry: UnregisterableEventListenerRegistry,
+            manager: EventManager,
+            factory: ReloadEventFactory
+    ): Pair<WeakReference<ClassLoader>, WeakReference<Class<*>>> {
+        val loader = ReloadingClassLoader(ReloadableListener::class.java.name, this.javaClass.classLoader)
+        val listenerClass = loader.loadClass(ReloadableListener::class.java.name)
+
+        Assert.assertNotSame(ReloadableListener::class.java, listenerClass)
+
+        val owner = Any()
+        val calls = ReloadCalls.calls.get()
+
+        registry.registerListeners(owner, listenerClass.newInstance())
+        manager.dispatch(factory.createReloadEvent("a"), this)
+
+        Assert.assertEquals(calls + 1, ReloadCalls.calls.get())
+
+        val generated = registry.getListenersContainers().single().eventListener.javaClass
+
+        Assert.assertEquals(1, registry.unregisterAll(owner))
+
+        return WeakReference<ClassLoader>(loader) to WeakReference<Class<*>>(generated)
+    }
+
+    /**
+     * Defines a new copy of [reloaded] class, like a plugin loader does when reloading a plugin.
+     */
+    private class ReloadingClassLoader(private val reloaded: String, parent: ClassLoader) : ClassLoader(parent) {
+        override fun loadClass(name: String, resolve: Boolean): Class<*> {
+            if (name != this.reloaded)
+                return super.loadClass(name, resolve)
+
+            synchronized(this.getClassLoadingLock(name)) {
+                this.findLoadedClass(name)?.let { return it }
+
+                val bytes = this.parent.getResourceAsStream("${name.replace('.', '/')}.class")!!.use { it.readBytes() }
+
+                return this.defineClass(name, bytes, 0, bytes.size)
+            }
+        }
+    }
+}
+
+class ReloadableListener {
+    @Listener
+    fun onReloadEvent(event: ReloadEvent, @Name("value") value: String) {
+        ReloadCalls.calls.incrementAndGet()
+    }
+}
+
+object ReloadCalls {
+    val calls = AtomicInteger()
+}
+
+interface ReloadEventFactory {
+    fun createReloadEvent(@Name("value") value: String): ReloadEvent
+}
+
+interface ReloadEvent : Event {
+    val value: String
+}
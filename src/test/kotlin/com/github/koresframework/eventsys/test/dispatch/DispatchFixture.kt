@@ -0,0 +1,133 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.EventDispatcher
+import com.github.koresframework.eventsys.event.EventListener
+import com.github.koresframework.eventsys.event.UnregisterableEventListenerRegistry
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.gen.event.CommonEventGenerator
+import com.github.koresframework.eventsys.gen.event.EventGenerator
+import com.github.koresframework.eventsys.impl.BoundedExecutor
+import com.github.koresframework.eventsys.impl.CommonEventDispatcher
+import com.github.koresframework.eventsys.impl.CommonEventManager
+import com.github.koresframework.eventsys.impl.CommonLogger
+import com.github.koresframework.eventsys.impl.CopyOnWriteEventListenerRegistry
+import com.github.koresframework.eventsys.impl.RingBufferEventDispatcher
+import com.github.koresframework.eventsys.logging.LoggerInterface
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import com.github.koresframework.eventsys.util.createFactory
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Event system of a dispatch test, with its own generator, registry and dispatcher.
+ *
+ * All executors created through [executorStrategy] are shut down when the fixture is closed.
+ *
+ * @param registry Creates the registry, [CopyOnWriteEventListenerRegistry] by default.
+ * @param executorStrategy Strategy of generator and dispatcher executors.
+ * @param dispatcher Creates the dispatcher, a [CommonEventDispatcher] with dispatch plan cache by default.
+ */
+class DispatchFixture(
+        registry: (Comparator<EventListener<*>>, LoggerInterface, EventGenerator) -> UnregisterableEventListenerRegistry =
+                ::CopyOnWriteEventListenerRegistry,
+        executorStrategy: ExecutorStrategy = ExecutorStrategy.CACHED,
+        dispatcher: DispatchFixture.() -> EventDispatcher = {
+            CommonEventDispatcher(Executors.defaultThreadFactory(), this.generator, this.logger, this.registry, true,
+                    executorStrategy = this.executorStrategy)
+        }
+) : AutoCloseable {
+
+    private val executors = CopyOnWriteArrayList<Executor>()
+
+    val executorStrategy = ExecutorStrategy { threadFactory ->
+        executorStrategy.createExecutor(threadFactory).also { this.executors += it }
+    }
+
+    val logger = CommonLogger()
+    val generator = CommonEventGenerator(this.logger, executorStrategy = this.executorStrategy)
+    val registry = registry(Comparator.comparing(EventListener<*>::priority), this.logger, this.generator)
+    val dispatcher = dispatcher()
+    val manager = CommonEventManager(this.generator, this.dispatcher, this.registry)
+
+    val factory: ValueEventFactory by lazy {
+        this.generator.createFactory<ValueEventFactory>().resolve()
+    }
+
+    override fun close() {
+        (this.dispatcher as? RingBufferEventDispatcher)?.shutdown()
+
+        this.executors.forEach {
+            when (it) {
+                is ExecutorService -> it.shutdown()
+                is BoundedExecutor -> it.shutdown()
+            }
+        }
+    }
+}
+
+interface ValueEventFactory {
+    fun createValueEvent(@Name("value") value: String): ValueEvent
+}
+
+interface ValueEvent : Event {
+    val value: String
+}
+
+interface AmountEventFactory {
+    fun createAmountEvent(@Name("name") name: String, @Name("amount") amount: Int): AmountEvent
+}
+
+interface AmountEvent : Event {
+    val name: String
+    val amount: Int
+}
+
+/**
+ * Listener of [AmountEvent] with two listener methods.
+ */
+class AmountListener {
+    var amount = 0
+    val names = mutableListOf<String>()
+
+    @Listener
+    fun onAmountEvent(event: AmountEvent, @Name("amount") amount: Int) {
+        this.amount += amount
+    }
+
+    @Listener
+    fun onAmountEventName(event: AmountEvent, @Name("name") name: String): Boolean {
+        this.names += name
+        return true
+    }
+}
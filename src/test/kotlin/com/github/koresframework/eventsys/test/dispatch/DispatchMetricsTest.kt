@@ -0,0 +1,144 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.CommonEventDispatcher
+import com.github.koresframework.eventsys.metrics.InMemoryDispatchMetrics
+import com.github.koresframework.eventsys.metrics.LatencyHistogram
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class DispatchMetricsTest {
+
+    @Test
+    fun dispatchMetrics() {
+        val metrics = InMemoryDispatchMetrics()
+
+        DispatchFixture(dispatcher = {
+            CommonEventDispatcher(Executors.defaultThreadFactory(), generator, logger, registry, true,
+                    executorStrategy = executorStrategy, metrics = metrics)
+        }).use { fixture ->
+            val manager = fixture.manager
+            val factory = fixture.factory
+
+            fixture.registry.registerListeners(this, Slow())
+            fixture.registry.registerListeners(this, Failing())
+
+            manager.dispatch(factory.createValueEvent("a"), this)
+            manager.dispatch(factory.createValueEvent("b"), this)
+            manager.dispatchAsync(factory.createValueEvent("c"), this).await()
+
+            val eventType = metrics.eventTypes().single()
+
+            Assert.assertEquals(3L, eventType.dispatches)
+            Assert.assertEquals(2.0, eventType.meanFanOut, 0.0)
+            Assert.assertEquals(2, eventType.maxFanOut)
+
+            val listeners = metrics.listeners()
+
+            Assert.assertEquals(2, listeners.size)
+            listeners.forEach { Assert.assertEquals(3L, it.invocations) }
+
+            val slowest = metrics.slowestListeners(1).single()
+
+            Assert.assertEquals(0L, slowest.failures)
+            Assert.assertTrue(slowest.execution.percentile(50.0) >= TimeUnit.MILLISECONDS.toNanos(SLEEP_MILLIS) / 2)
+            Assert.assertEquals(1L, slowest.queueWait.count)
+            Assert.assertEquals(3L, (listeners - slowest).single().failures)
+
+            // Unregistered listeners are discarded
+            fixture.registry.unregisterAll(this)
+
+            Assert.assertTrue(metrics.listeners().isEmpty())
+
+            metrics.reset()
+
+            Assert.assertTrue(metrics.listeners().isEmpty())
+            Assert.assertTrue(metrics.eventTypes().isEmpty())
+        }
+    }
+
+    @Test
+    fun queueWaitOfSynchronousDispatches() {
+        val metrics = InMemoryDispatchMetrics()
+
+        DispatchFixture(dispatcher = {
+            CommonEventDispatcher(Executors.defaultThreadFactory(), generator, logger, registry, true,
+                    executorStrategy = executorStrategy, metrics = metrics)
+        }).use { fixture ->
+            fixture.registry.registerListeners(this, Slow())
+            fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this)
+
+            val listener = metrics.listeners().single()
+
+            Assert.assertEquals(1L, listener.execution.count)
+            Assert.assertEquals(0L, listener.queueWait.count)
+            Assert.assertEquals(0L, listener.queueWait.percentile(99.0))
+        }
+    }
+
+    @Test
+    fun histogramPercentiles() {
+        val histogram = LatencyHistogram()
+
+        for (i in 1L..10_000L)
+            histogram.record(i * 1000L)
+
+        val snapshot = histogram.snapshot()
+        val error = 1.0 / LatencyHistogram.SUB_BUCKETS
+
+        Assert.assertEquals(10_000L, snapshot.count)
+        Assert.assertEquals(10_000_000L, snapshot.maxNanos)
+        Assert.assertEquals(5_000_500.0, snapshot.meanNanos, 0.0)
+        Assert.assertEquals(5_000_000.0, snapshot.percentile(50.0).toDouble(), 5_000_000.0 * error)
+        Assert.assertEquals(9_900_000.0, snapshot.percentile(99.0).toDouble(), 9_900_000.0 * error)
+        Assert.assertEquals(10_000_000L, snapshot.percentile(100.0))
+    }
+
+    class Slow {
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            Thread.sleep(SLEEP_MILLIS)
+        }
+    }
+
+    class Failing {
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            throw IllegalStateException(value)
+        }
+    }
+
+    companion object {
+        const val SLEEP_MILLIS = 5L
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.EventPriority
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.PerChannelEventListenerRegistry
+import org.junit.Assert
+import org.junit.Test
+
+class DispatchPlanCacheTest {
+
+    @Test
+    fun invalidateOnRegister() = DispatchFixture(registry = ::PerChannelEventListenerRegistry).use { fixture ->
+        val first = Counter()
+        val second = Counter()
+
+        fixture.registry.registerListeners(this, first)
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this)
+        fixture.manager.dispatch(fixture.factory.createValueEvent("b"), this)
+
+        Assert.assertEquals(2, first.calls)
+
+        fixture.registry.registerListeners(this, second)
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("c"), this)
+
+        Assert.assertEquals(3, first.calls)
+        Assert.assertEquals(1, second.calls)
+    }
+
+    @Test
+    fun priorityOrderAcrossChannels() = DispatchFixture(registry = ::PerChannelEventListenerRegistry).use { fixture ->
+        val listener = ChannelListener()
+
+        fixture.registry.registerListeners(this, listener)
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this, "a")
+
+        // Listeners of the channel and of all channels are called in priority order
+        Assert.assertEquals(listOf("first", "normal", "last"), listener.calls)
+    }
+
+    class ChannelListener {
+        val calls = mutableListOf<String>()
+
+        @Listener(channel = "a", priority = EventPriority.LAST)
+        fun last(event: ValueEvent) {
+            calls += "last"
+        }
+
+        @Listener(channel = "a")
+        fun normal(event: ValueEvent) {
+            calls += "normal"
+        }
+
+        @Listener(priority = EventPriority.FIRST)
+        fun first(event: ValueEvent) {
+            calls += "first"
+        }
+    }
+
+    class Counter {
+        var calls = 0
+
+        @Listener
+        fun onValueEvent(event: ValueEvent, @Name("value") value: String) {
+            calls++
+        }
+    }
+}
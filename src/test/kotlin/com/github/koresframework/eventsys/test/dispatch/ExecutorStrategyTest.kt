@@ -0,0 +1,81 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.util.ExecutorStrategy
+import org.junit.Assert
+import org.junit.Test
+
+class ExecutorStrategyTest {
+
+    @Test
+    fun callerRuns() {
+        val recorder = this.dispatch(ExecutorStrategy.CALLER_RUNS)
+
+        Assert.assertSame(Thread.currentThread(), recorder.thread)
+    }
+
+    @Test
+    fun workStealing() {
+        val recorder = this.dispatch(ExecutorStrategy.WORK_STEALING)
+
+        Assert.assertNotSame(Thread.currentThread(), recorder.thread)
+    }
+
+    @Test
+    fun virtualThreads() {
+        val recorder = this.dispatch(ExecutorStrategy.VIRTUAL_THREADS)
+
+        Assert.assertNotSame(Thread.currentThread(), recorder.thread)
+
+        if (ExecutorStrategy.VIRTUAL_THREADS_AVAILABLE)
+            Assert.assertTrue(Thread::class.java.getMethod("isVirtual").invoke(recorder.thread) as Boolean)
+    }
+
+    private fun dispatch(executorStrategy: ExecutorStrategy): Recorder =
+            DispatchFixture(executorStrategy = executorStrategy).use { fixture ->
+                val recorder = Recorder()
+
+                fixture.registry.registerListeners(this, recorder)
+
+                Assert.assertEquals(1, fixture.manager.dispatchAsync(fixture.factory.createValueEvent("a"), this).await().size)
+
+                recorder
+            }
+
+    class Recorder {
+        @Volatile
+        var thread: Thread? = null
+
+        @Listener
+        fun onEvent(event: ValueEvent) {
+            thread = Thread.currentThread()
+        }
+    }
+}
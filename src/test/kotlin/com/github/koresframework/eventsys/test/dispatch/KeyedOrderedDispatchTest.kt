@@ -0,0 +1,103 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.*
+import org.junit.Assert
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class KeyedOrderedDispatchTest {
+
+    @Test
+    fun keyedOrderedDispatch() {
+        val orderedExecutor = KeyedOrderedExecutor(4)
+
+        DispatchFixture(dispatcher = {
+            CommonEventDispatcher(Executors.defaultThreadFactory(), generator, logger, registry, true,
+                    orderedExecutor, executorStrategy = executorStrategy)
+        }).use { fixture ->
+            val calls = Collections.synchronizedList(mutableListOf<String>())
+
+            fixture.registry.registerListeners(this, Recorder(calls))
+
+            val results = (0 until 200).map {
+                val key = "entity${it % 4}"
+                val ctx = EnvironmentContext().also { ctx -> OrderingKeyExtractor.ORDERING_KEY.set(ctx.data, key) }
+
+                fixture.manager.dispatchAsync(fixture.factory.createValueEvent("$key:$it"), this, ctx)
+            }
+
+            results.forEach { it.await() }
+
+            Assert.assertEquals(200, calls.size)
+
+            calls.groupBy { it.substringBefore(':') }.values.forEach { keyCalls ->
+                val sequence = keyCalls.map { it.substringAfter(':').toInt() }
+                Assert.assertEquals(sequence.sorted(), sequence)
+            }
+        }
+
+        orderedExecutor.shutdown()
+    }
+
+    @Test
+    fun queueDepth() {
+        val orderedExecutor = KeyedOrderedExecutor(2)
+        val latch = CountDownLatch(1)
+        val stripe = orderedExecutor.stripeOf("a")
+
+        orderedExecutor.execute("a", Runnable { latch.await() })
+
+        // Wait the blocking task to start
+        while (orderedExecutor.queueDepth(stripe) != 0)
+            Thread.yield()
+
+        repeat(3) {
+            orderedExecutor.execute("a", Runnable { })
+        }
+
+        Assert.assertEquals(3, orderedExecutor.queueDepth(stripe))
+        Assert.assertEquals(3, orderedExecutor.queueDepths.sum())
+
+        latch.countDown()
+        orderedExecutor.shutdown()
+    }
+
+    class Recorder(private val calls: MutableList<String>) {
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            calls += value
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.gen.event.EventGeneratorOptions
+import com.github.koresframework.eventsys.impl.PerChannelEventListenerRegistry
+import com.github.koresframework.eventsys.result.ListenResult
+import com.github.koresframework.eventsys.util.createFactory
+import com.github.koresframework.eventsys.util.mh.MethodDispatcher
+import org.junit.Assert
+import org.junit.Test
+
+class MethodDispatcherTest {
+
+    @Test
+    fun methodHandleListener() = DispatchFixture(registry = ::PerChannelEventListenerRegistry).use { fixture ->
+        fixture.generator.options[EventGeneratorOptions.USE_METHOD_HANDLE_LISTENER] = true
+
+        val listener = AmountListener()
+
+        fixture.registry.registerListeners(this, listener)
+
+        Assert.assertTrue(fixture.registry.getListenersContainers().all { it.eventListener is MethodDispatcher })
+
+        val factory = fixture.generator.createFactory<AmountEventFactory>().resolve()
+        val results = fixture.manager.dispatch(factory.createAmountEvent("a", 10), this).await()
+
+        Assert.assertEquals(2, results.size)
+        Assert.assertTrue(results.all { it.result is ListenResult.Value })
+        Assert.assertEquals(10, listener.amount)
+        Assert.assertEquals(listOf("a"), listener.names)
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.channel.ChannelSet
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.annotation.Listener
+import org.junit.Assert
+import org.junit.Assume
+import org.junit.Test
+import java.lang.management.ManagementFactory
+
+class PostAllocationTest {
+
+    @Test
+    fun postDoesNotAllocate() {
+        val threadBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+
+        Assume.assumeTrue(threadBean != null && threadBean.isThreadAllocatedMemorySupported)
+        threadBean!!.isThreadAllocatedMemoryEnabled = true
+
+        DispatchFixture().use { fixture ->
+            val manager = fixture.manager
+            val counter = Counter()
+
+            fixture.registry.registerListeners(this, counter)
+
+            val event = fixture.factory.createValueEvent("a")
+            val ctx = EnvironmentContext()
+            val type = ValueEvent::class.java
+            val channel = ChannelSet.Expression.ALL
+
+            // Warm up, so listener calls are compiled and dispatch plan is cached
+            repeat(WARMUP) {
+                manager.post(event, type, this, channel, ctx)
+            }
+
+            val threadId = Thread.currentThread().id
+            val before = threadBean.getThreadAllocatedBytes(threadId)
+
+            for (i in 0 until DISPATCHES) {
+                manager.post(event, type, this, channel, ctx)
+            }
+
+            val allocated = threadBean.getThreadAllocatedBytes(threadId) - before
+
+            Assert.assertEquals(WARMUP + DISPATCHES, counter.calls)
+            // Less than a byte per dispatch, only the measurement itself is allowed to allocate
+            Assert.assertTrue("Allocated $allocated bytes in $DISPATCHES dispatches", allocated < DISPATCHES)
+        }
+    }
+
+    class Counter {
+        @JvmField
+        var calls = 0
+
+        @Listener
+        fun onValueEvent(event: ValueEvent) {
+            calls++
+        }
+    }
+
+    companion object {
+        private const val WARMUP = 20_000
+        private const val DISPATCHES = 10_000
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.channel.ChannelSet
+import com.github.koresframework.eventsys.context.EnvironmentContext
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.impl.*
+import com.github.koresframework.eventsys.logging.LoggerInterface
+import com.github.koresframework.eventsys.logging.MessageType
+import com.github.koresframework.eventsys.result.ListenResult
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+class RingBufferDispatchTest {
+
+    @Test
+    fun busySpin() = this.publish(WaitStrategy.BUSY_SPIN)
+
+    @Test
+    fun yielding() = this.publish(WaitStrategy.YIELDING)
+
+    @Test
+    fun parking() = this.publish(WaitStrategy.PARKING)
+
+    private fun publish(waitStrategy: WaitStrategy) = DispatchFixture(dispatcher = {
+        RingBufferEventDispatcher(generator, logger, registry, 64, 2, waitStrategy)
+    }).use { fixture ->
+        val dispatcher = fixture.dispatcher as RingBufferEventDispatcher
+        val counter = Counter()
+
+        fixture.registry.registerListeners(this, counter)
+
+        val event = fixture.factory.createValueEvent("a")
+        val eventType = event.eventType
+        val ctx = EnvironmentContext()
+
+        (0 until 4).map {
+            thread {
+                repeat(1000) {
+                    dispatcher.publish(event, eventType, this, ChannelSet.Expression.ALL, ctx)
+                }
+            }
+        }.forEach { it.join() }
+
+        val results = fixture.manager.dispatchAsync(fixture.factory.createValueEvent("b"), this).await()
+
+        Assert.assertEquals(1, results.size)
+        Assert.assertTrue(results.single().result is ListenResult.Value)
+
+        dispatcher.shutdown()
+
+        Assert.assertTrue(dispatcher.awaitTermination(10, TimeUnit.SECONDS))
+        Assert.assertEquals(4001, counter.calls.get())
+    }
+
+    @Test
+    fun shutdownWhilePublishing() = DispatchFixture(dispatcher = {
+        RingBufferEventDispatcher(generator, logger, registry, 64, 2)
+    }).use { fixture ->
+        val dispatcher = fixture.dispatcher as RingBufferEventDispatcher
+        val counter = Counter()
+
+        fixture.registry.registerListeners(this, counter)
+
+        val event = fixture.factory.createValueEvent("a")
+        val eventType = event.eventType
+        val ctx = EnvironmentContext()
+        val accepted = ConcurrentLinkedQueue<CompletableFuture<*>>()
+
+        val producers = (0 until 4).map {
+            thread {
+                try {
+                    while (true)
+                        accepted += dispatcher.dispatchOrderedAsync(event, eventType, this, ChannelSet.Expression.ALL, ctx)
+                } catch (e: RejectedExecutionException) {
+                    // Shutdown
+                }
+            }
+        }
+
+        Thread.sleep(20)
+        dispatcher.shutdown()
+        producers.forEach { it.join() }
+
+        Assert.assertTrue(dispatcher.awaitTermination(10, TimeUnit.SECONDS))
+        // Every accepted dispatch was processed
+        Assert.assertTrue(accepted.all { it.isDone })
+        Assert.assertEquals(accepted.size, counter.calls.get())
+    }
+
+    @Test
+    fun consumerSurvivesFailingLogger() = DispatchFixture(dispatcher = {
+        RingBufferEventDispatcher(generator, FailingLogger, registry, 64, 1)
+    }).use { fixture ->
+        val dispatcher = fixture.dispatcher as RingBufferEventDispatcher
+        val failing = FailingListener()
+
+        fixture.registry.registerListeners(this, failing)
+
+        val event = fixture.factory.createValueEvent("a")
+        val ctx = EnvironmentContext()
+
+        // More than the buffer size, producers would wait forever for a stopped consumer
+        repeat(256) {
+            dispatcher.publish(event, event.eventType, this, ChannelSet.Expression.ALL, ctx)
+        }
+
+        dispatcher.shutdown()
+
+        Assert.assertTrue(dispatcher.awaitTermination(10, TimeUnit.SECONDS))
+        Assert.assertEquals(256, failing.calls.get())
+    }
+
+    object FailingLogger : LoggerInterface {
+        override fun log(message: String, messageType: MessageType, ctx: EnvironmentContext) =
+                throw IllegalStateException(message)
+
+        override fun log(message: String, messageType: MessageType, throwable: Throwable, ctx: EnvironmentContext) =
+                throw IllegalStateException(message, throwable)
+
+        override fun log(messages: List<String>, messageType: MessageType, ctx: EnvironmentContext) =
+                throw IllegalStateException(messages.joinToString())
+
+        override fun log(messages: List<String>, messageType: MessageType, throwable: Throwable, ctx: EnvironmentContext) =
+                throw IllegalStateException(messages.joinToString(), throwable)
+    }
+
+    class FailingListener {
+        val calls = AtomicInteger()
+
+        @Listener
+        fun onEvent(event: ValueEvent) {
+            calls.incrementAndGet()
+            throw IllegalStateException("Failing listener")
+        }
+    }
+
+    class Counter {
+        val calls = AtomicInteger()
+
+        @Listener
+        fun onEvent(event: ValueEvent, @Name("value") value: String) {
+            calls.incrementAndGet()
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.dispatch
+
+import com.github.koresframework.eventsys.event.annotation.Listener
+import com.github.koresframework.eventsys.event.annotation.Name
+import org.junit.Assert
+import org.junit.Test
+
+class UnregisterTest {
+
+    @Test
+    fun unregister() = DispatchFixture().use { fixture ->
+        val registry = fixture.registry
+        val pluginA = Any()
+        val pluginB = Any()
+        val first = Counter()
+        val second = Counter()
+
+        registry.registerListeners(pluginA, first)
+        registry.registerListeners(pluginB, second)
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("a"), this)
+
+        Assert.assertEquals(1, first.calls)
+        Assert.assertEquals(1, second.calls)
+
+        Assert.assertEquals(1, registry.unregisterAll(pluginA))
+        Assert.assertEquals(0, registry.unregisterAll(pluginA))
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("b"), this)
+
+        Assert.assertEquals(1, first.calls)
+        Assert.assertEquals(2, second.calls)
+
+        val listener = registry.getListenersContainers().single().eventListener
+
+        Assert.assertTrue(registry.unregisterListener(listener))
+        Assert.assertTrue(registry.getListenersContainers().isEmpty())
+
+        fixture.manager.dispatch(fixture.factory.createValueEvent("c"), this)
+
+        Assert.assertEquals(2, second.calls)
+    }
+
+    class Counter {
+        var calls = 0
+
+        @Listener
+        fun onValueEvent(event: ValueEvent, @Name("value") value: String) {
+            calls++
+        }
+    }
+}
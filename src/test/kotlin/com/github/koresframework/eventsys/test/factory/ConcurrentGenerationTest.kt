@@ -0,0 +1,82 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.factory
+
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.event.annotation.Name
+import com.github.koresframework.eventsys.gen.event.CommonEventGenerator
+import com.github.koresframework.eventsys.impl.CommonLogger
+import com.github.koresframework.eventsys.util.createEventClass
+import com.github.koresframework.eventsys.util.createFactory
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class ConcurrentGenerationTest {
+
+    @Test
+    fun concurrentResolution() {
+        val generator = CommonEventGenerator(CommonLogger())
+        val executor = Executors.newFixedThreadPool(8)
+        val start = CountDownLatch(1)
+
+        try {
+            val events = (0 until 8).map {
+                executor.submit(Callable {
+                    start.await()
+                    generator.createEventClass<ConcurrentEvent>().resolve()
+                })
+            }
+
+            val factories = (0 until 8).map {
+                executor.submit(Callable {
+                    start.await()
+                    generator.createFactory<ConcurrentEventFactory>().resolve()
+                })
+            }
+
+            start.countDown()
+
+            Assert.assertEquals(1, events.map { it.get() }.distinct().size)
+            Assert.assertEquals(1, factories.map { it.get() }.distinct().size)
+            Assert.assertEquals("a", factories.first().get().createConcurrentEvent("a").value)
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    interface ConcurrentEventFactory {
+        fun createConcurrentEvent(@Name("value") value: String): ConcurrentEvent
+    }
+
+    interface ConcurrentEvent : Event {
+        val value: String
+    }
+}
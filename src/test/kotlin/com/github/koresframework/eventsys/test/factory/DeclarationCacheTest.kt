@@ -0,0 +1,66 @@
+/*
+ *      EventSys - Event implementation generator written on top of Kores
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2021 ProjectSandstone <https://github.com/ProjectSandstone/EventSys>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.koresframework.eventsys.test.factory
+
+import com.github.koresframework.eventsys.event.Event
+import com.github.koresframework.eventsys.util.DeclarationCache
+import org.junit.Assert
+import org.junit.Test
+
+class DeclarationCacheTest {
+
+    @Test
+    fun indexedLookup() {
+        val cache = DeclarationCache()
+        val declaration = cache[NamedEvent::class.java]
+
+        Assert.assertEquals("getName", cache.getGetter(declaration, "name")?.name)
+        Assert.assertEquals("isActive", cache.getGetter(declaration, "active")?.name)
+        Assert.assertEquals("setName", cache.getSetter(declaration, "name", String::class.java)?.name)
+        Assert.assertNull(cache.getSetter(declaration, "name", Int::class.javaPrimitiveType!!))
+        Assert.assertNull(cache.getGetter(declaration, "missing"))
+
+        // Methods overridden in sub-interfaces are listed once
+        Assert.assertEquals(1, cache.getMethods(declaration).count { it.methodDeclaration.name == "getName" })
+
+        val getName = cache.getMethods(declaration).first { it.methodDeclaration.name == "getName" }.methodDeclaration
+
+        Assert.assertTrue(cache.hasMethod(BaseNamedEvent::class.java, getName))
+        Assert.assertTrue(cache.statistics.hits > 0)
+        Assert.assertTrue(cache.statistics.misses > 0)
+    }
+
+    interface BaseNamedEvent : Event {
+        val name: String
+    }
+
+    interface NamedEvent : BaseNamedEvent {
+        override var name: String
+        val isActive: Boolean
+    }
+}